@@ -1,8 +1,12 @@
 package com.mikuexpress.mikuexpress;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
@@ -13,7 +17,11 @@ public class MikuexpressApplication {
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(@Value("${mikuexpress.lookup.timeout-ms}") long timeoutMs) {
+		// Timeouts de conexão e leitura para que uma consulta lenta não prenda a thread indefinidamente
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMs));
+		requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+		return new RestTemplate(requestFactory);
 	}
 }
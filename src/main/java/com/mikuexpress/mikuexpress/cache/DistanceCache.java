@@ -0,0 +1,148 @@
+package com.mikuexpress.mikuexpress.cache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mikuexpress.mikuexpress.entity.CityDistance;
+import com.mikuexpress.mikuexpress.repository.CityDistanceRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache de distâncias rodoviárias entre pares de cidades.
+ * 
+ * Como o Google Maps recebe apenas "Cidade, UF, BR", todos os pedidos entre as mesmas
+ * duas cidades têm a mesma distância. O par é simétrico (A -> B == B -> A) e fica em
+ * dois níveis:
+ * - memória (Caffeine), limitado por mikuexpress.cache.distance.max-size
+ * - tabela city_distance no Postgres, compartilhada entre todos os nós
+ * 
+ * Consultas simultâneas ao mesmo par que não está em memória são agrupadas em uma
+ * única busca no banco/Google ({@link SingleFlight}).
+ * 
+ * Na inicialização as distâncias mais recentes da tabela são carregadas em memória.
+ * 
+ * Métricas: mikuexpress.distance.lookups (tag source=memory|database|google),
+ * mikuexpress.distance.cache.hit.ratio e as métricas do cache "distance".
+ * Consultas servidas por memory ou database são chamadas economizadas no Google.
+ */
+@Component
+@Slf4j
+public class DistanceCache {
+
+	private final CityDistanceRepository cityDistanceRepository;
+	private final Cache<String, Double> cache;
+	private final SingleFlight<String, Double> inFlight;
+	private final int warmUpSize;
+	
+	private final Counter memoryHits;
+	private final Counter databaseHits;
+	private final Counter misses;
+
+	public DistanceCache(
+			CityDistanceRepository cityDistanceRepository,
+			MeterRegistry meterRegistry,
+			@Qualifier("lookupExecutor") ExecutorService lookupExecutor,
+			@Value("${mikuexpress.cache.distance.max-size}") long maxSize,
+			@Value("${mikuexpress.cache.distance.warm-up-size}") int warmUpSize) {
+		this.cityDistanceRepository = cityDistanceRepository;
+		this.warmUpSize = warmUpSize;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "distance");
+		this.inFlight = new SingleFlight<>("distance", lookupExecutor, meterRegistry);
+		
+		this.memoryHits = meterRegistry.counter("mikuexpress.distance.lookups", "source", "memory");
+		this.databaseHits = meterRegistry.counter("mikuexpress.distance.lookups", "source", "database");
+		this.misses = meterRegistry.counter("mikuexpress.distance.lookups", "source", "google");
+		Gauge.builder("mikuexpress.distance.cache.hit.ratio", this, DistanceCache::hitRatio)
+				.description("Fração das consultas de distância atendidas sem chamar o Google Maps")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Busca a distância entre duas cidades em memória, depois no banco e,
+	 * por último, através do loader (Google Maps).
+	 * 
+	 * A distância obtida pelo loader é guardada em memória e no banco.
+	 * 
+	 * @param source Endereço de origem no formato "Cidade, Estado, BR"
+	 * @param destination Endereço de destino no formato "Cidade, Estado, BR"
+	 * @param loader Consulta ao Google Maps usada quando o par não está em cache
+	 * @return Distância em quilômetros
+	 */
+	public Double get(String source, String destination, BiFunction<String, String, Double> loader) {
+		String[] cities = orderedCities(source, destination);
+		String pair = cities[0] + "|" + cities[1];
+		
+		Double distance = cache.getIfPresent(pair);
+		if (distance != null) {
+			memoryHits.increment();
+			return distance;
+		}
+		
+		return inFlight.execute(pair, () -> {
+			Double stored = cityDistanceRepository.findById(pair)
+					.map(CityDistance::getDistanceKm)
+					.orElse(null);
+			if (stored != null) {
+				databaseHits.increment();
+				cache.put(pair, stored);
+				return stored;
+			}
+			
+			misses.increment();
+			Double calculated = loader.apply(source, destination);
+			cache.put(pair, calculated);
+			cityDistanceRepository.insertIfAbsent(pair, cities[0], cities[1], calculated, LocalDateTime.now());
+			return calculated;
+		});
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		try {
+			List<CityDistance> distances = cityDistanceRepository
+					.findAllByOrderByDateUpdateDesc(PageRequest.of(0, warmUpSize));
+			distances.forEach(d -> cache.put(d.getCityPair(), d.getDistanceKm()));
+			log.info("Cache de distâncias aquecido com {} pares de cidades", distances.size());
+		} catch (Exception e) {
+			log.warn("Não foi possível aquecer o cache de distâncias", e);
+		}
+	}
+
+	private double hitRatio() {
+		double hits = memoryHits.count() + databaseHits.count();
+		double total = hits + misses.count();
+		return total == 0 ? 0 : hits / total;
+	}
+
+	// Ordena as cidades para que A -> B e B -> A usem a mesma chave
+	private static String[] orderedCities(String source, String destination) {
+		String cityA = normalize(source);
+		String cityB = normalize(destination);
+		return cityA.compareTo(cityB) <= 0 ? new String[] { cityA, cityB } : new String[] { cityB, cityA };
+	}
+
+	private static String normalize(String address) {
+		return address.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,83 @@
+package com.mikuexpress.mikuexpress.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa chamadas concorrentes com a mesma chave em uma única execução.
+ * 
+ * A primeira thread que pede uma chave dispara a chamada; as demais que chegarem
+ * enquanto ela estiver em andamento recebem o mesmo resultado ou a mesma exceção.
+ * A chamada roda no executor informado, e não na thread de quem pediu, para que
+ * o cancelamento de um chamador não derrube a chamada compartilhada pelos outros.
+ * 
+ * Chamadas agrupadas são contadas em mikuexpress.lookups.coalesced (tag lookup).
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final Executor executor;
+	private final Counter coalesced;
+
+	public SingleFlight(String name, Executor executor, MeterRegistry meterRegistry) {
+		this.executor = executor;
+		this.coalesced = meterRegistry.counter("mikuexpress.lookups.coalesced", "lookup", name);
+	}
+
+	/**
+	 * Executa a chamada para a chave ou aguarda a execução que já está em andamento.
+	 * 
+	 * @param key Chave que identifica chamadas equivalentes
+	 * @param call Chamada a ser executada se não houver outra em andamento
+	 * @return Resultado da chamada
+	 * @throws RuntimeException lançada pela chamada ou se a espera for interrompida
+	 */
+	public V execute(K key, Supplier<V> call) {
+		CompletableFuture<V> created = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+		
+		if (existing != null) {
+			coalesced.increment();
+			return await(existing);
+		}
+		
+		try {
+			executor.execute(() -> {
+				try {
+					created.complete(call.get());
+				} catch (Throwable e) {
+					created.completeExceptionally(e);
+				} finally {
+					inFlight.remove(key, created);
+				}
+			});
+		} catch (RuntimeException e) {
+			inFlight.remove(key, created);
+			created.completeExceptionally(e);
+		}
+		return await(created);
+	}
+
+	private V await(CompletableFuture<V> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Consulta interrompida", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.mikuexpress.mikuexpress.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mikuexpress.mikuexpress.dto.TrackingViewDTO;
+import com.mikuexpress.mikuexpress.event.OrderChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache em memória da consulta pública de rastreio, chaveado pelo código de rastreio.
+ * 
+ * Guarda a visão já montada ({@link TrackingViewDTO}), então um acerto não consulta o
+ * Postgres nem monta o grafo de entidades. As entradas são removidas logo após a
+ * confirmação da transação que alterou o pedido ({@link OrderChangedEvent}).
+ * Alterações feitas por outras instâncias não chegam aqui: nesse caso a entrada
+ * expira após mikuexpress.cache.tracking.ttl.
+ * 
+ * Métricas: acertos e falhas com o nome de cache "tracking" (cache.gets) e a idade
+ * das entradas servidas em mikuexpress.tracking.cache.age.
+ */
+@Component
+@Slf4j
+public class TrackingViewCache {
+
+	private final Cache<String, CachedView> cache;
+	private final SingleFlight<String, TrackingViewDTO> inFlight;
+	private final Timer entryAge;
+	
+	// Cargas em andamento por código: uma carga invalidada antes de terminar não é guardada.
+	// Só existem entradas enquanto a carga roda, então o mapa não cresce com o cache.
+	private final ConcurrentHashMap<String, Load> loads = new ConcurrentHashMap<>();
+
+	public TrackingViewCache(
+			MeterRegistry meterRegistry,
+			@Qualifier("lookupExecutor") ExecutorService lookupExecutor,
+			@Value("${mikuexpress.cache.tracking.max-size}") long maxSize,
+			@Value("${mikuexpress.cache.tracking.ttl}") Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "tracking");
+		this.inFlight = new SingleFlight<>("tracking", lookupExecutor, meterRegistry);
+		this.entryAge = Timer.builder("mikuexpress.tracking.cache.age")
+				.description("Idade das visões de rastreio servidas pelo cache")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Busca a visão de rastreio no cache ou, se não houver, através do loader.
+	 * 
+	 * @param trackingCode Código de rastreio já validado
+	 * @param loader Consulta ao banco usada quando o código não está em cache
+	 * @return TrackingViewDTO em cache ou retornado pelo loader
+	 */
+	public TrackingViewDTO get(String trackingCode, Function<String, TrackingViewDTO> loader) {
+		CachedView cached = cache.getIfPresent(trackingCode);
+		if (cached != null) {
+			entryAge.record(System.nanoTime() - cached.cachedAtNanos(), TimeUnit.NANOSECONDS);
+			return cached.view();
+		}
+		
+		return inFlight.execute(trackingCode, () -> {
+			Load load = new Load();
+			loads.put(trackingCode, load);
+			TrackingViewDTO view = null;
+			try {
+				view = loader.apply(trackingCode);
+				return view;
+			} finally {
+				store(trackingCode, load, view);
+			}
+		});
+	}
+
+	/**
+	 * Guarda a visão carregada se nenhuma alteração do mesmo pedido foi confirmada
+	 * durante a carga. Roda na mesma operação atômica da chave que {@link #onOrderChanged}
+	 * usa para marcar a carga, então as duas nunca se intercalam.
+	 */
+	private void store(String trackingCode, Load load, TrackingViewDTO view) {
+		loads.compute(trackingCode, (code, current) -> {
+			if (current != load) {
+				// Outra carga do mesmo código começou depois desta; só ela pode guardar
+				return current;
+			}
+			if (view != null && !load.invalidated) {
+				cache.put(code, new CachedView(view, System.nanoTime()));
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Retorna a visão de rastreio somente se ela já estiver em cache.
+	 * 
+	 * @param trackingCode Código de rastreio já validado
+	 * @return TrackingViewDTO em cache ou null
+	 */
+	public TrackingViewDTO getIfPresent(String trackingCode) {
+		CachedView cached = cache.getIfPresent(trackingCode);
+		return cached != null ? cached.view() : null;
+	}
+
+	/**
+	 * Remove a visão do pedido alterado depois que a transação for confirmada.
+	 * 
+	 * @param event Evento publicado por OrderService
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onOrderChanged(OrderChangedEvent event) {
+		loads.computeIfPresent(event.trackingCode(), (code, load) -> {
+			load.invalidated = true;
+			return load;
+		});
+		cache.invalidate(event.trackingCode());
+		log.debug("Visão de rastreio {} removida do cache", event.trackingCode());
+	}
+
+	private record CachedView(TrackingViewDTO view, long cachedAtNanos) {
+	}
+
+	private static final class Load {
+		// Alterado só dentro de operações atômicas da chave em loads
+		private boolean invalidated;
+	}
+}
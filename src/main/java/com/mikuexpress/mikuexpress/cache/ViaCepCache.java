@@ -0,0 +1,96 @@
+package com.mikuexpress.mikuexpress.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mikuexpress.mikuexpress.dto.ViaCepResponseDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache em memória das respostas do ViaCEP, limitado por tamanho.
+ * 
+ * Endereços válidos ficam em cache por mikuexpress.cache.viacep.ttl.
+ * CEPs inexistentes ({@link ViaCepResponseDTO#hasError()}) também são guardados,
+ * mas por um prazo curto (mikuexpress.cache.viacep.negative-ttl), para que novas
+ * tentativas com o mesmo CEP não voltem a consultar o ViaCEP.
+ * 
+ * Consultas simultâneas ao mesmo CEP que não está em cache são agrupadas em uma
+ * única chamada ao ViaCEP ({@link SingleFlight}).
+ * 
+ * Acertos, falhas e remoções são publicados no Micrometer com o nome de cache "viacep"
+ * (cache.gets, cache.evictions, cache.size).
+ */
+@Component
+public class ViaCepCache {
+
+	private final Cache<String, ViaCepResponseDTO> cache;
+	private final SingleFlight<String, ViaCepResponseDTO> inFlight;
+
+	public ViaCepCache(
+			MeterRegistry meterRegistry,
+			@Qualifier("lookupExecutor") ExecutorService lookupExecutor,
+			@Value("${mikuexpress.cache.viacep.max-size}") long maxSize,
+			@Value("${mikuexpress.cache.viacep.ttl}") Duration ttl,
+			@Value("${mikuexpress.cache.viacep.negative-ttl}") Duration negativeTtl) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new AddressExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "viacep");
+		this.inFlight = new SingleFlight<>("viacep", lookupExecutor, meterRegistry);
+	}
+
+	/**
+	 * Busca o endereço de um CEP no cache ou, se não houver, através do loader.
+	 * 
+	 * Respostas não nulas do loader são guardadas no cache. Exceções não são
+	 * guardadas, mas são repassadas a todos que aguardavam a mesma consulta.
+	 * 
+	 * @param cep CEP normalizado (apenas números)
+	 * @param loader Consulta ao ViaCEP usada quando o CEP não está em cache
+	 * @return ViaCepResponseDTO em cache ou retornado pelo loader
+	 */
+	public ViaCepResponseDTO get(String cep, Function<String, ViaCepResponseDTO> loader) {
+		ViaCepResponseDTO cached = cache.getIfPresent(cep);
+		if (cached != null) {
+			return cached;
+		}
+		
+		return inFlight.execute(cep, () -> {
+			ViaCepResponseDTO address = loader.apply(cep);
+			if (address != null) {
+				cache.put(cep, address);
+			}
+			return address;
+		});
+	}
+
+	private record AddressExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, ViaCepResponseDTO> {
+
+		@Override
+		public long expireAfterCreate(String key, ViaCepResponseDTO value, long currentTime) {
+			return value.hasError() ? negativeTtlNanos : ttlNanos;
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, ViaCepResponseDTO value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, ViaCepResponseDTO value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
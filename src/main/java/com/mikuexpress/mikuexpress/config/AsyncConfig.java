@@ -0,0 +1,26 @@
+package com.mikuexpress.mikuexpress.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+	/**
+	 * Executor usado para as consultas externas (ViaCEP) feitas em paralelo.
+	 * 
+	 * Cada tarefa roda em uma thread virtual, pois passa quase todo o tempo
+	 * bloqueada esperando a resposta HTTP.
+	 * 
+	 * @return ExecutorService com uma thread virtual por tarefa
+	 */
+	@Bean(destroyMethod = "close")
+	public ExecutorService lookupExecutor() {
+		return Executors.newVirtualThreadPerTaskExecutor();
+	}
+}
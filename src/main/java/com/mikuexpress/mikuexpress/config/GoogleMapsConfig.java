@@ -12,10 +12,14 @@ public class GoogleMapsConfig {
 	@Value("${google.maps.api.key}")
 	private String apiKey;
 	
+	@Value("${google.maps.api.qps}")
+	private int queriesPerSecond;
+	
 	@Bean
 	public GeoApiContext geoApiContext() {
 		return new GeoApiContext.Builder()
                 .apiKey(apiKey)
+                .queryRateLimit(queriesPerSecond)
                 .build();
 				
 	}
@@ -2,6 +2,7 @@ package com.mikuexpress.mikuexpress.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,9 +25,13 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.mikuexpress.mikuexpress.entity.UserGeneric;
 import com.mikuexpress.mikuexpress.repository.UserGenericRepository;
+import com.mikuexpress.mikuexpress.security.BoundedPasswordEncoder;
 import com.mikuexpress.mikuexpress.security.JwtCustomAuthenticationFilter;
 import com.mikuexpress.mikuexpress.security.JwtTokenProvider;
+import com.mikuexpress.mikuexpress.security.PrincipalCache;
+import com.mikuexpress.mikuexpress.security.TokenRevocationList;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -38,9 +43,12 @@ public class SecurityConfiguration {
 	@Bean
 	public JwtCustomAuthenticationFilter jwtCustomAuthenticationFilter(
 		JwtTokenProvider jwtTokenProvider,
-		UserDetailsService userDetailsService
+		UserDetailsService userDetailsService,
+		PrincipalCache principalCache,
+		TokenRevocationList tokenRevocationList,
+		@Value("${mikuexpress.security.jwt.stateless-principal}") boolean statelessPrincipal
 	) {
-		return new JwtCustomAuthenticationFilter(jwtTokenProvider, userDetailsService);
+		return new JwtCustomAuthenticationFilter(jwtTokenProvider, userDetailsService, principalCache, tokenRevocationList, statelessPrincipal);
 	}
 
 	@Bean
@@ -53,14 +61,17 @@ public class SecurityConfiguration {
 			.cors(Customizer.withDefaults())
 			.csrf(AbstractHttpConfigurer::disable)
 			.authorizeHttpRequests(authorize -> {
+				authorize.requestMatchers("/api/auth/logout", "/api/auth/reset-password").authenticated();
 				authorize.requestMatchers(
 					"/error",
+					"/actuator/health",
 					"/api/auth/**",
 					"/api/publics/**",
 					"/api/admins/register",
 					"/api/clients/register"
 				).permitAll();
 				authorize.requestMatchers("/api/admins/**").hasRole("ADMIN");
+				authorize.requestMatchers("/actuator/**").hasRole("ADMIN");
 				authorize.requestMatchers("/api/clients/**").hasAnyRole("ADMIN", "CLIENT");
 				authorize.anyRequest().authenticated();
 			})
@@ -74,9 +85,17 @@ public class SecurityConfiguration {
 		return new GrantedAuthorityDefaults("");
 	}
 
+	// BCrypt em pool próprio e limitado, fora das threads do Tomcat (ver BoundedPasswordEncoder)
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(
+		MeterRegistry meterRegistry,
+		@Value("${mikuexpress.security.password.threads}") int threads,
+		@Value("${mikuexpress.security.password.queue-capacity}") int queueCapacity
+	) {
+		if (threads <= 0) {
+			threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		}
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, meterRegistry);
 	}
 
 	@Bean
@@ -1,8 +1,10 @@
 package com.mikuexpress.mikuexpress.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,20 +13,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mikuexpress.mikuexpress.dto.CreatePackageDTO;
 import com.mikuexpress.mikuexpress.dto.CreateUserAdminDTO;
 import com.mikuexpress.mikuexpress.dto.CreatedPackageDTO;
+import com.mikuexpress.mikuexpress.dto.OrderFilterDTO;
+import com.mikuexpress.mikuexpress.dto.OrderPageDTO;
 import com.mikuexpress.mikuexpress.dto.StatusUpdateDTO;
 import com.mikuexpress.mikuexpress.dto.StatusUpdatedDTO;
+import com.mikuexpress.mikuexpress.dto.TrackingViewDTO;
 import com.mikuexpress.mikuexpress.dto.UpdateUserAdminDTO;
-import com.mikuexpress.mikuexpress.entity.Order;
 import com.mikuexpress.mikuexpress.entity.UserAdmin;
+import com.mikuexpress.mikuexpress.service.AuthService;
+import com.mikuexpress.mikuexpress.service.OrderImportService;
 import com.mikuexpress.mikuexpress.service.OrderService;
+import com.mikuexpress.mikuexpress.service.ScanIngestionService;
 import com.mikuexpress.mikuexpress.service.SecurityService;
 import com.mikuexpress.mikuexpress.service.UserAdminServcice;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,7 +46,10 @@ public class AdminController {
 
 	private final UserAdminServcice userAdminService;
 	private final SecurityService securityService;
+	private final AuthService authService;
 	private final OrderService orderService;
+	private final OrderImportService orderImportService;
+	private final ScanIngestionService scanIngestionService;
 	
 	/**
 	 * Registra um novo usuário administrador no sistema.
@@ -134,16 +147,59 @@ public class AdminController {
 	}
 	
 	/**
-	 * Retorna todos os pedidos cadastrados no sistema.
+	 * Encerra todas as sessões de um usuário (cliente ou administrador).
+	 * 
+	 * Revoga todos os tokens já emitidos para o usuário; um novo login volta a funcionar.
+	 * 
+	 * @param userId ID do usuário
+	 * @return ResponseEntity com status 204 em caso de sucesso
+	 */
+	@PostMapping("/users/{id}/logout")
+	public ResponseEntity<Void> forceLogout(@PathVariable("id") Long userId) {
+		log.info("Administrador {} forçou o logout do usuário ID: {}", securityService.getCurrentUserId(), userId);
+		authService.forceLogout(userId);
+		return ResponseEntity.noContent().build();
+	}
+	
+	/**
+	 * Lista os pedidos cadastrados no sistema em páginas.
 	 * 
 	 * Este endpoint permite que administradores visualizem todos os pedidos,
-	 * independente do cliente.
+	 * independente do cliente, do mais recente ao mais antigo. Para buscar a próxima
+	 * página, envie o nextCursor da resposta no parâmetro cursor.
 	 * 
-	 * @return ResponseEntity com status 200 (OK) e lista de todos os pedidos
+	 * @param filter Filtros opcionais: customerEmail, from, to (ISO-8601) e status (status atual)
+	 * @param cursor Cursor da página anterior (omitir na primeira página)
+	 * @param size Quantidade de pedidos por página
+	 * @return ResponseEntity com status 200 (OK) e a página de pedidos
 	 */
 	@GetMapping("/orders")
-	public ResponseEntity<List<Order>> getAllOrders() {
-		return ResponseEntity.ok(orderService.getAllOrders());
+	public ResponseEntity<OrderPageDTO> getAllOrders(
+			OrderFilterDTO filter,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "50") int size) {
+		return ResponseEntity.ok(orderService.listOrders(filter, cursor, size));
+	}
+	
+	/**
+	 * Exporta todos os pedidos do filtro em streaming, um pedido JSON por linha (NDJSON).
+	 * 
+	 * Os pedidos são lidos do banco por cursor e escritos à medida que chegam, então
+	 * a exportação funciona para qualquer quantidade de pedidos.
+	 * 
+	 * @param filter Filtros opcionais: customerEmail, from, to (ISO-8601) e status (status atual)
+	 * @param response Resposta em application/x-ndjson com um OrderSummaryDTO por linha
+	 * @throws IOException se houver erro ao escrever a resposta
+	 */
+	@GetMapping(value = "/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void exportOrders(OrderFilterDTO filter, HttpServletResponse response) throws IOException {
+		log.info("Exportando pedidos: {}", filter);
+		
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		orderService.exportOrders(filter, response.getOutputStream());
+		response.flushBuffer();
 	}
 	
 	/**
@@ -155,7 +211,7 @@ public class AdminController {
 	 * @return ResponseEntity com status 200 (OK) e os dados do pedido encontrado
 	 */
 	@GetMapping("/orders/{id}")
-	public ResponseEntity<Order> getOrderById(@PathVariable("id") Long orderId) {
+	public ResponseEntity<TrackingViewDTO> getOrderById(@PathVariable("id") Long orderId) {
 		return ResponseEntity.ok(orderService.getOrderById(orderId));
 	}
 	
@@ -212,4 +268,49 @@ public class AdminController {
 		return ResponseEntity.status(HttpStatus.CREATED)
 				.body(orderService.createPackage(dto));
 	}
+	
+	/**
+	 * Importa pedidos em massa a partir de um arquivo CSV ou NDJSON.
+	 * 
+	 * Cada linha do corpo é um pedido com os mesmos campos de {@link CreatePackageDTO}.
+	 * No CSV a primeira linha é o cabeçalho (source,destination,customerEmail,customerName,weightInKg).
+	 * As linhas são processadas em pipeline (CEPs, distância, preço e gravação em lote) e o
+	 * resultado de cada linha é devolvido em streaming como NDJSON, à medida que fica pronto.
+	 * 
+	 * @param request Requisição com o corpo em text/csv ou application/x-ndjson
+	 * @param response Resposta em application/x-ndjson com um ImportResultDTO por linha
+	 * @throws IOException se houver erro ao ler o corpo ou escrever a resposta
+	 */
+	@PostMapping(value = "/orders/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+	public void importOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		boolean csv = request.getContentType().startsWith("text/csv");
+		log.info("Importando pedidos em massa ({})", csv ? "CSV" : "NDJSON");
+		
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		orderImportService.importOrders(request.getInputStream(), csv, response.getOutputStream());
+	}
+	
+	/**
+	 * Recebe em massa as leituras (scans) de pacotes feitas em um hub.
+	 * 
+	 * Cada linha do corpo é um evento JSON com trackingCode, status, source e, opcionalmente,
+	 * destination e dateUpdate. Os eventos são gravados em lotes e cada linha recebe uma
+	 * confirmação (ACCEPTED ou ERROR) em streaming como NDJSON. Os clientes são notificados
+	 * por e-mail em segundo plano.
+	 * 
+	 * @param request Requisição com o corpo em application/x-ndjson
+	 * @param response Resposta em application/x-ndjson com um ScanAckDTO por linha
+	 * @throws IOException se houver erro ao ler o corpo ou escrever a resposta
+	 */
+	@PostMapping(value = "/scans", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public void ingestScans(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		log.info("Recebendo leituras de hub");
+		
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		scanIngestionService.ingest(request.getInputStream(), response.getOutputStream());
+	}
 }
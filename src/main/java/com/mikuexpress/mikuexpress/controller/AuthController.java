@@ -1,5 +1,6 @@
 package com.mikuexpress.mikuexpress.controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,13 +9,20 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.mikuexpress.mikuexpress.dto.LoginRequestDTO;
 import com.mikuexpress.mikuexpress.dto.LoginResponseDTO;
+import com.mikuexpress.mikuexpress.dto.RefreshTokenRequestDTO;
+import com.mikuexpress.mikuexpress.dto.ResetPassword;
 import com.mikuexpress.mikuexpress.entity.UserGeneric;
 import com.mikuexpress.mikuexpress.security.JwtTokenProvider;
+import com.mikuexpress.mikuexpress.security.PasswordHashingBusyException;
+import com.mikuexpress.mikuexpress.service.AuthService;
+import com.mikuexpress.mikuexpress.service.RefreshTokenService;
+import com.mikuexpress.mikuexpress.service.SecurityService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +36,9 @@ public class AuthController {
 
 	private final AuthenticationManager authenticationManager;
 	private final JwtTokenProvider jwtTokenProvider;
+	private final AuthService authService;
+	private final RefreshTokenService refreshTokenService;
+	private final SecurityService securityService;
 
 	/**
 	 * Realiza a autenticação de um usuário no sistema.
@@ -39,11 +50,13 @@ public class AuthController {
 	 * 4. Retorna o token junto com dados básicos do usuário
 	 * 
 	 * O token retornado deve ser usado no header Authorization: Bearer {token}
-	 * para acessar endpoints protegidos.
+	 * para acessar endpoints protegidos. Quando ele expirar, use o refreshToken em
+	 * /api/auth/refresh em vez de repetir o login.
 	 * 
 	 * @param loginRequest DTO contendo email e senha do usuário
 	 * @return ResponseEntity com status 200 (OK) e LoginResponseDTO contendo token JWT e dados do usuário, 
 	 *         401 (UNAUTHORIZED) se as credenciais forem inválidas,
+	 *         429 (TOO_MANY_REQUESTS) se a fila de verificação de senha estiver cheia,
 	 *         500 (INTERNAL_SERVER_ERROR) em caso de erro interno
 	 */
 	@PostMapping("/login")
@@ -62,14 +75,16 @@ public class AuthController {
 			// Obter o usuário autenticado
 			UserGeneric user = (UserGeneric) authentication.getPrincipal();
 			
-			// Gerar token JWT
+			// Gerar token JWT e o refresh token da sessão
 			String token = jwtTokenProvider.generateToken(authentication);
+			String refreshToken = refreshTokenService.issue(user.getId());
 			
 			log.info("Login realizado com sucesso para o usuário: {}", user.getEmail());
 			
 			// Retornar resposta com token
 			LoginResponseDTO response = LoginResponseDTO.of(
 				token,
+				refreshToken,
 				user.getEmail(),
 				user.getName(),
 				user.getRole(),
@@ -81,9 +96,76 @@ public class AuthController {
 		} catch (BadCredentialsException e) {
 			log.warn("Credenciais inválidas para o email: {}", loginRequest.email());
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		} catch (PasswordHashingBusyException e) {
+			log.warn("Login recusado por fila de hashing cheia para o email: {}", loginRequest.email());
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
 		} catch (Exception e) {
 			log.error("Erro ao realizar login para o email: {}", loginRequest.email(), e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
 		}
 	}
+
+	/**
+	 * Emite um novo token de acesso a partir do refresh token, sem verificar a senha.
+	 * 
+	 * O refresh token é de uso único: a resposta traz um novo, que substitui o enviado.
+	 * Reenviar um refresh token já usado revoga a sessão inteira.
+	 * 
+	 * @param request DTO contendo o refresh token
+	 * @return ResponseEntity com status 200 (OK) e LoginResponseDTO com os novos tokens,
+	 *         401 (UNAUTHORIZED) se o refresh token for inválido, expirado, revogado ou já usado
+	 */
+	@PostMapping("/refresh")
+	public ResponseEntity<LoginResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+		try {
+			LoginResponseDTO response = authService.refresh(request.refreshToken());
+			log.debug("Token renovado para o usuário: {}", response.email());
+			return ResponseEntity.ok(response);
+		} catch (BadCredentialsException e) {
+			log.warn("Refresh token rejeitado: {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+	}
+
+	/**
+	 * Encerra a sessão do usuário revogando o token usado nesta requisição e, se enviado
+	 * no corpo, o refresh token da mesma sessão.
+	 * 
+	 * O token deixa de ser aceito em todas as instâncias; os demais tokens do usuário
+	 * continuam válidos.
+	 * 
+	 * @param authorization Header Authorization com o token JWT (Bearer {token})
+	 * @param request DTO contendo o refresh token da sessão (opcional)
+	 * @return ResponseEntity com status 204 (NO_CONTENT)
+	 */
+	@PostMapping("/logout")
+	public ResponseEntity<Void> logout(
+			@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+			@RequestBody(required = false) RefreshTokenRequestDTO request) {
+		authService.logout(authorization.substring("Bearer ".length()), request != null ? request.refreshToken() : null);
+		log.info("Logout realizado para o usuário ID: {}", securityService.getCurrentUserId());
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Altera a senha do usuário autenticado.
+	 * 
+	 * Exige a senha atual. Todos os tokens já emitidos para o usuário são revogados,
+	 * então é necessário fazer login novamente com a nova senha.
+	 * 
+	 * @param dto DTO contendo a senha atual, a nova senha e a confirmação
+	 * @return ResponseEntity com status 204 (NO_CONTENT),
+	 *         ou 403 (FORBIDDEN) se a senha atual estiver incorreta
+	 */
+	@PostMapping("/reset-password")
+	public ResponseEntity<Void> resetPassword(@RequestBody ResetPassword dto) {
+		Long userId = securityService.getCurrentUserId();
+		try {
+			authService.resetPassword(userId, dto);
+		} catch (BadCredentialsException e) {
+			log.warn("Troca de senha recusada por senha atual incorreta para o usuário ID: {}", userId);
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		return ResponseEntity.noContent().build();
+	}
 }
@@ -12,10 +12,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.mikuexpress.mikuexpress.dto.CreateUserPublicDTO;
+import com.mikuexpress.mikuexpress.dto.TrackingViewDTO;
 import com.mikuexpress.mikuexpress.dto.UpdateUserPublicDTO;
-import com.mikuexpress.mikuexpress.entity.Order;
 import com.mikuexpress.mikuexpress.entity.UserPublic;
 import com.mikuexpress.mikuexpress.service.OrderService;
 import com.mikuexpress.mikuexpress.service.SecurityService;
@@ -106,14 +107,21 @@ public class ClientController {
 	 * Este endpoint filtra automaticamente os pedidos pelo email do cliente logado,
 	 * garantindo que o cliente veja apenas seus próprios pedidos.
 	 * 
-	 * @return ResponseEntity com status 200 (OK) e lista de pedidos do cliente autenticado
+	 * Suporta GET condicional: se nenhum pedido do cliente mudou desde o ETag enviado
+	 * em If-None-Match, retorna 304 (NOT MODIFIED) sem carregar os pedidos.
+	 * 
+	 * @param request Requisição atual, usada para comparar o ETag
+	 * @return ResponseEntity com status 200 (OK) e lista de pedidos do cliente autenticado, ou 304 (NOT MODIFIED)
 	 */
 	@GetMapping("/orders")
-	public ResponseEntity<List<Order>> getClientOrders() {
+	public ResponseEntity<List<TrackingViewDTO>> getClientOrders(WebRequest request) {
 		String userEmail = securityService.getCurrentUserEmail();
+		if (request.checkNotModified(orderService.getOrdersETag(userEmail))) {
+			return null;
+		}
 		log.info("Buscando pedidos do cliente: {}", userEmail);
 		
-		List<Order> orders = orderService.getOrdersByCustomerEmail(userEmail);
+		List<TrackingViewDTO> orders = orderService.getOrdersByCustomerEmail(userEmail);
 		return ResponseEntity.ok(orders);
 	}
 
@@ -128,14 +136,14 @@ public class ClientController {
 	 * @return ResponseEntity com status 200 (OK) e os dados do pedido, ou 403 (FORBIDDEN) se o pedido não pertencer ao cliente
 	 */
 	@GetMapping("/orders/{orderId}")
-	public ResponseEntity<Order> getOrderById(@PathVariable Long orderId) {
+	public ResponseEntity<TrackingViewDTO> getOrderById(@PathVariable Long orderId) {
 		String userEmail = securityService.getCurrentUserEmail();
 		log.info("Buscando pedido ID {} do cliente: {}", orderId, userEmail);
 		
-		Order order = orderService.getOrderById(orderId);
+		TrackingViewDTO order = orderService.getOrderById(orderId);
 		
 		// Verificar se o pedido pertence ao cliente autenticado
-		if (!order.getCustomerEmail().equals(userEmail)) {
+		if (!order.customerEmail().equals(userEmail)) {
 			log.warn("Cliente {} tentou acessar pedido de outro cliente", userEmail);
 			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
 		}
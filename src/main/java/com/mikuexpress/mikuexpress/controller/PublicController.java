@@ -5,8 +5,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.dto.TrackingViewDTO;
 import com.mikuexpress.mikuexpress.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,12 +24,21 @@ public class PublicController {
 	 * 
 	 * Este é um endpoint público que não requer autenticação, permitindo que
 	 * qualquer pessoa consulte o status de um pedido usando apenas o código de rastreio.
+	 * A resposta vem do cache de rastreio sempre que possível.
 	 * 
-	 * @param code Código de rastreio do pedido (ex: "MIKU12345678BR")
-	 * @return ResponseEntity com status 200 (OK) e os dados do pedido incluindo histórico de status
+	 * Suporta GET condicional: se o If-None-Match do cliente for igual ao ETag atual
+	 * do pedido, retorna 304 (NOT MODIFIED) sem montar a resposta.
+	 * 
+	 * @param code Código de rastreio do pedido (ex: "MIKU06JHVHS1R0MTMBBR")
+	 * @param request Requisição atual, usada para comparar o ETag
+	 * @return ResponseEntity com status 200 (OK) e os dados do pedido incluindo histórico de status, ou 304 (NOT MODIFIED)
 	 */
 	@GetMapping("/orders/tracking")
-	public ResponseEntity<Order> getOrderByTrackingCode(@RequestParam String code) {
-		return ResponseEntity.ok(orderService.consultByCode(code));
+	public ResponseEntity<TrackingViewDTO> getOrderByTrackingCode(@RequestParam String code, WebRequest request) {
+		String eTag = orderService.getTrackingETag(code);
+		if (eTag != null && request.checkNotModified(eTag)) {
+			return null;
+		}
+		return ResponseEntity.ok(orderService.getTrackingView(code));
 	}
 }
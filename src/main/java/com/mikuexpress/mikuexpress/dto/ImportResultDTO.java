@@ -0,0 +1,16 @@
+package com.mikuexpress.mikuexpress.dto;
+
+public record ImportResultDTO(
+		long line,
+		String status,
+		String trackingCode,
+		String message) {
+
+	public static ImportResultDTO created(long line, String trackingCode) {
+		return new ImportResultDTO(line, "CREATED", trackingCode, null);
+	}
+	
+	public static ImportResultDTO error(long line, String message) {
+		return new ImportResultDTO(line, "ERROR", null, message);
+	}
+}
@@ -0,0 +1,7 @@
+package com.mikuexpress.mikuexpress.dto;
+
+public record OrderCodeDTO(
+		Long id,
+		String trackingCode) {
+
+}
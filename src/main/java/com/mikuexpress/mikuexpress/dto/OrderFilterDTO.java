@@ -0,0 +1,21 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filtros opcionais da listagem de pedidos do administrador.
+ * 
+ * @param customerEmail Email do cliente
+ * @param from Data de criação inicial (inclusiva)
+ * @param to Data de criação final (exclusiva)
+ * @param status Status atual do pedido (última atualização de status)
+ */
+public record OrderFilterDTO(
+		String customerEmail,
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+		String status) {
+
+}
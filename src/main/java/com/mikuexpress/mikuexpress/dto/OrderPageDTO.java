@@ -0,0 +1,15 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import java.util.List;
+
+/**
+ * Página da listagem de pedidos.
+ * 
+ * @param orders Pedidos da página, do mais recente ao mais antigo
+ * @param nextCursor Cursor para buscar a próxima página, ou null se esta for a última
+ */
+public record OrderPageDTO(
+		List<OrderSummaryDTO> orders,
+		String nextCursor) {
+
+}
@@ -0,0 +1,18 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import java.time.LocalDateTime;
+
+public record OrderSummaryDTO(
+		Long id,
+		String trackingCode,
+		String source,
+		String destination,
+		String distance,
+		Double price,
+		String customerEmail,
+		String customerName,
+		Double weightInKg,
+		LocalDateTime dateCreate,
+		String currentStatus) {
+
+}
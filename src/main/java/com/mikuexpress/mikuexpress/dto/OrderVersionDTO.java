@@ -0,0 +1,42 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Resumo barato de um ou mais pedidos, usado para gerar o ETag das respostas
+ * sem carregar as entidades.
+ * 
+ * Qualquer atualização de status muda a contagem ou a data mais recente; criação
+ * ou exclusão de pedidos muda a contagem de pedidos ou o maior ID.
+ */
+public record OrderVersionDTO(
+		Long orderCount,
+		Long statusCount,
+		Long maxOrderId,
+		LocalDateTime lastUpdate) {
+
+	public static OrderVersionDTO of(TrackingViewDTO view) {
+		LocalDateTime lastUpdate = null;
+		long statusCount = 0;
+		if (view.statusUpdates() != null) {
+			for (StatusUpdatedDTO statusUpdate : view.statusUpdates()) {
+				statusCount++;
+				if (lastUpdate == null || statusUpdate.dateUpdate().isAfter(lastUpdate)) {
+					lastUpdate = statusUpdate.dateUpdate();
+				}
+			}
+		}
+		return new OrderVersionDTO(1L, statusCount, view.id(), lastUpdate);
+	}
+	
+	public boolean isEmpty() {
+		return orderCount == null || orderCount == 0;
+	}
+	
+	public String toETag() {
+		long lastUpdateMicros = lastUpdate == null ? 0
+				: lastUpdate.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastUpdate.getNano() / 1_000;
+		return orderCount + "-" + statusCount + "-" + maxOrderId + "-" + lastUpdateMicros;
+	}
+}
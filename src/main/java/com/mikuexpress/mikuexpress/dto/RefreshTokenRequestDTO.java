@@ -0,0 +1,9 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDTO(
+		@NotBlank(message = "Refresh token é obrigatório")
+		String refreshToken
+) {
+}
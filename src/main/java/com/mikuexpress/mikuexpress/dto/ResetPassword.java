@@ -1,6 +1,7 @@
 package com.mikuexpress.mikuexpress.dto;
 
 public record ResetPassword(
+		String currentPassword,
 		String newPassword,
 		String confirmNewPassword) {
 
@@ -0,0 +1,16 @@
+package com.mikuexpress.mikuexpress.dto;
+
+public record ScanAckDTO(
+		long line,
+		String status,
+		String trackingCode,
+		String message) {
+
+	public static ScanAckDTO accepted(long line, String trackingCode) {
+		return new ScanAckDTO(line, "ACCEPTED", trackingCode, null);
+	}
+	
+	public static ScanAckDTO error(long line, String trackingCode, String message) {
+		return new ScanAckDTO(line, "ERROR", trackingCode, message);
+	}
+}
@@ -0,0 +1,21 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de leitura (scan) de um pacote em um hub.
+ * 
+ * @param trackingCode Código de rastreio do pacote lido
+ * @param status Novo status do pacote
+ * @param source Localização atual
+ * @param destination Próximo destino (opcional)
+ * @param dateUpdate Momento da leitura no hub (opcional; se ausente, usa o momento do recebimento)
+ */
+public record ScanEventDTO(
+		String trackingCode,
+		String status,
+		String source,
+		String destination,
+		LocalDateTime dateUpdate) {
+
+}
@@ -0,0 +1,19 @@
+package com.mikuexpress.mikuexpress.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record TrackingViewDTO(
+		Long id,
+		String trackingCode,
+		String source,
+		String destination,
+		String distance,
+		Double price,
+		String customerEmail,
+		String customerName,
+		Double weightInKg,
+		LocalDateTime dateCreate,
+		List<StatusUpdatedDTO> statusUpdates) {
+
+}
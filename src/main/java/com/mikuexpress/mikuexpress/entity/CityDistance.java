@@ -0,0 +1,31 @@
+package com.mikuexpress.mikuexpress.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name="city_distance")
+public class CityDistance {
+
+	@Id
+	@Column(name = "city_pair", nullable = false)
+	private String cityPair;
+	
+	@Column(name = "city_a", nullable = false)
+	private String cityA;
+	
+	@Column(name = "city_b", nullable = false)
+	private String cityB;
+	
+	@Column(name = "distance_km", nullable = false)
+	private Double distanceKm;
+	
+	@Column(name = "date_update", nullable = false)
+	private LocalDateTime dateUpdate;
+}
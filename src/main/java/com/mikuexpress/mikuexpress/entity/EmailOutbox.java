@@ -0,0 +1,58 @@
+package com.mikuexpress.mikuexpress.entity;
+
+import java.time.LocalDateTime;
+
+import com.mikuexpress.mikuexpress.enums.EmailType;
+import com.mikuexpress.mikuexpress.enums.OutboxStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name="email_outbox")
+public class EmailOutbox {
+
+	@Id
+	@Column(name = "outbox_id", nullable = false)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_id_generator")
+	@SequenceGenerator(name = "email_outbox_id_generator", sequenceName = "email_outbox_seq", allocationSize = 50)
+	private Long id;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "type", nullable = false)
+	private EmailType type;
+	
+	@Column(name = "order_id", nullable = false)
+	private Long orderId;
+	
+	@Column(name = "status_id")
+	private Long statusUpdateId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false)
+	private OutboxStatus status;
+	
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+	
+	@Column(name = "next_attempt_at", nullable = false)
+	private LocalDateTime nextAttemptAt;
+	
+	@Column(name = "last_error", length = 1000)
+	private String lastError;
+	
+	@Column(name = "date_create", nullable = false)
+	private LocalDateTime dateCreate;
+	
+	@Column(name = "date_sent")
+	private LocalDateTime dateSent;
+}
@@ -10,17 +10,21 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 @Entity
 @Data
-@Table(name="orders")
+@Table(name="orders", uniqueConstraints = @UniqueConstraint(name = "uk_orders_tracking_code", columnNames = "tracking_code"))
 public class Order {
 
 	@Id
 	@Column(name = "order_id", nullable = false)
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_generator")
+	@SequenceGenerator(name = "order_id_generator", sequenceName = "order_seq", allocationSize = 50)
 	private Long id;
 	
 	@Column(name = "tracking_code", nullable = false)
@@ -50,7 +54,15 @@ public class Order {
 	@Column(name = "date_create", nullable = false)
 	private LocalDateTime dateCreate;
 	
+	// Cópia do status da última atualização, mantida por OrderService.addStatusUpdate
+	@Column(name = "current_status")
+	private String currentStatus;
+	
+	@Column(name = "last_updated")
+	private LocalDateTime lastUpdated;
+	
 	
 	@OneToMany(cascade = CascadeType.ALL, mappedBy = "order")
+	@OrderBy("dateUpdate ASC")
 	private List<StatusUpdate> statusUpdates;
 }
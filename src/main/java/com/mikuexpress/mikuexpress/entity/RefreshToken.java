@@ -0,0 +1,48 @@
+package com.mikuexpress.mikuexpress.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name="refresh_token", uniqueConstraints = @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash"))
+public class RefreshToken {
+
+	@Id
+	@Column(name = "refresh_token_id", nullable = false)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_id_generator")
+	@SequenceGenerator(name = "refresh_token_id_generator", sequenceName = "refresh_token_seq", allocationSize = 50)
+	private Long id;
+	
+	// SHA-256 (hex) do token entregue ao cliente
+	@Column(name = "token_hash", nullable = false, length = 64)
+	private String tokenHash;
+	
+	@Column(name = "family_id", nullable = false, length = 36)
+	private String familyId;
+	
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+	
+	@Column(name = "date_create", nullable = false)
+	private LocalDateTime dateCreate;
+	
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+	
+	// Preenchido quando o token é trocado por um novo
+	@Column(name = "used_at")
+	private LocalDateTime usedAt;
+	
+	@Column(name = "revoked_at")
+	private LocalDateTime revokedAt;
+}
@@ -0,0 +1,29 @@
+package com.mikuexpress.mikuexpress.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name="revoked_token")
+public class RevokedToken {
+
+	// "jti:<id do token>" ou "uid:<id do usuário>"
+	@Id
+	@Column(name = "revocation_key", nullable = false, length = 80)
+	private String revocationKey;
+	
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+	
+	@Column(name = "revoked_at", nullable = false)
+	private LocalDateTime revokedAt;
+	
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+}
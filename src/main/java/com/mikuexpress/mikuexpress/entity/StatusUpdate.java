@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -21,7 +22,8 @@ public class StatusUpdate {
 
 	@Id
 	@Column(name = "status_id", nullable = false)
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "status_update_id_generator")
+	@SequenceGenerator(name = "status_update_id_generator", sequenceName = "status_update_seq", allocationSize = 50)
 	private Long id;
 	
 	@Column(name = "status", nullable = false)
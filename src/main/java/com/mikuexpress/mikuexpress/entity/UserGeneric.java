@@ -18,6 +18,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 
@@ -31,7 +32,8 @@ public class UserGeneric implements UserDetails {
 
 	@Id
 	@Column(name = "user_id", nullable = false, unique = true)
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_generic_id_generator")
+	@SequenceGenerator(name = "user_generic_id_generator", sequenceName = "user_generic_seq", allocationSize = 50)
 	private Long id;
 	
 	@Column(name = "name", nullable = false)
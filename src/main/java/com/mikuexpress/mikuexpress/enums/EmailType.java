@@ -0,0 +1,8 @@
+package com.mikuexpress.mikuexpress.enums;
+
+public enum EmailType {
+	ORDER_CREATED,
+	STATUS_UPDATE,
+	// Modo resumo: uma mensagem com todas as atualizações do pedido na janela
+	STATUS_DIGEST
+}
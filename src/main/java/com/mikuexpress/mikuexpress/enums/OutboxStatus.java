@@ -0,0 +1,8 @@
+package com.mikuexpress.mikuexpress.enums;
+
+public enum OutboxStatus {
+	PENDING,
+	PROCESSING,
+	SENT,
+	DEAD
+}
@@ -0,0 +1,14 @@
+package com.mikuexpress.mikuexpress.event;
+
+/**
+ * Publicado quando um pedido ou seu histórico de status muda.
+ * 
+ * Os ouvintes usam {@code @TransactionalEventListener} para reagir somente depois
+ * que a transação que fez a alteração for confirmada.
+ * 
+ * @param orderId ID do pedido alterado
+ * @param trackingCode Código de rastreio do pedido alterado
+ */
+public record OrderChangedEvent(Long orderId, String trackingCode) {
+
+}
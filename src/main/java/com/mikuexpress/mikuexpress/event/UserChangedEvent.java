@@ -0,0 +1,13 @@
+package com.mikuexpress.mikuexpress.event;
+
+/**
+ * Publicado quando os dados de um usuário são alterados ou quando ele é excluído.
+ * 
+ * Os ouvintes usam {@code @TransactionalEventListener} para reagir somente depois
+ * que a transação que fez a alteração for confirmada.
+ * 
+ * @param userId ID do usuário alterado
+ */
+public record UserChangedEvent(Long userId) {
+
+}
@@ -1,12 +1,15 @@
 package com.mikuexpress.mikuexpress.mappers;
 
+import java.util.List;
+
 import org.mapstruct.Mapper;
 
 import com.mikuexpress.mikuexpress.dto.CreatePackageDTO;
 import com.mikuexpress.mikuexpress.dto.CreatedPackageDTO;
+import com.mikuexpress.mikuexpress.dto.TrackingViewDTO;
 import com.mikuexpress.mikuexpress.entity.Order;
 
-@Mapper(componentModel="spring")
+@Mapper(componentModel="spring", uses = StatusUpdateMapper.class)
 public interface OrderMapper {
 
 	Order toEntity(CreatePackageDTO dto);
@@ -14,4 +17,8 @@ public interface OrderMapper {
 	CreatePackageDTO toDTO(Order order);
 	CreatedPackageDTO toCreatedDTO(Order order);
 	
+	TrackingViewDTO toTrackingView(Order order);
+	
+	List<TrackingViewDTO> toTrackingViews(List<Order> orders);
+	
 }
@@ -0,0 +1,33 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.entity.CityDistance;
+
+public interface CityDistanceRepository extends JpaRepository<CityDistance, String> {
+
+	List<CityDistance> findAllByOrderByDateUpdateDesc(Pageable pageable);
+	
+	// ON CONFLICT evita erro (e rollback da transação atual) quando outro nó grava o mesmo par
+	@Modifying
+	@Transactional
+	@Query(value = """
+			INSERT INTO city_distance (city_pair, city_a, city_b, distance_km, date_update)
+			VALUES (:cityPair, :cityA, :cityB, :distanceKm, :dateUpdate)
+			ON CONFLICT (city_pair) DO NOTHING
+			""", nativeQuery = true)
+	int insertIfAbsent(
+			@Param("cityPair") String cityPair,
+			@Param("cityA") String cityA,
+			@Param("cityB") String cityB,
+			@Param("distanceKm") Double distanceKm,
+			@Param("dateUpdate") LocalDateTime dateUpdate);
+}
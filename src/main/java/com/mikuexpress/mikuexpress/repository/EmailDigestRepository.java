@@ -0,0 +1,53 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Inclusão dos resumos de status (modo resumo) na caixa de saída.
+ * 
+ * O índice único parcial uk_email_outbox_pending_digest permite no máximo um resumo
+ * pendente por pedido; com ON CONFLICT DO NOTHING a inclusão de um pedido que já tem
+ * resumo pendente é ignorada pelo próprio banco, inclusive entre transações
+ * simultâneas. Usa a mesma conexão da transação JPA em andamento.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailDigestRepository {
+
+	private static final String INSERT = """
+			insert into email_outbox (outbox_id, type, order_id, status_id, status, attempts, next_attempt_at, date_create)
+			values (nextval('email_outbox_seq'), 'STATUS_DIGEST', ?, ?, 'PENDING', 0, ?, ?)
+			on conflict (order_id, type) where status = 'PENDING' and type = 'STATUS_DIGEST' do nothing
+			""";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Registra um resumo pendente para o pedido de cada atualização, se ainda não houver.
+	 * 
+	 * @param statusUpdates Primeira atualização de cada pedido, já salva e com o pedido associado
+	 * @param delayMs Janela do resumo: espera antes do envio
+	 */
+	public void insertIfAbsent(List<StatusUpdate> statusUpdates, long delayMs) {
+		LocalDateTime now = LocalDateTime.now();
+		Timestamp nextAttemptAt = Timestamp.valueOf(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMs)));
+		Timestamp dateCreate = Timestamp.valueOf(now);
+		
+		jdbcTemplate.batchUpdate(INSERT, statusUpdates, statusUpdates.size(), (ps, statusUpdate) -> {
+			ps.setLong(1, statusUpdate.getOrder().getId());
+			ps.setLong(2, statusUpdate.getId());
+			ps.setTimestamp(3, nextAttemptAt);
+			ps.setTimestamp(4, dateCreate);
+		});
+	}
+}
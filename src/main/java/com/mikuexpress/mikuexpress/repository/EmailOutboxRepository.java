@@ -0,0 +1,50 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.entity.EmailOutbox;
+import com.mikuexpress.mikuexpress.enums.OutboxStatus;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+	// SKIP LOCKED permite que vários nós consumam a fila sem pegar as mesmas linhas
+	@Query(value = """
+			SELECT * FROM email_outbox
+			WHERE status IN ('PENDING', 'PROCESSING') AND next_attempt_at <= :now
+			ORDER BY next_attempt_at
+			LIMIT :limit
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	List<EmailOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+	
+	long countByStatus(OutboxStatus status);
+	
+	// Lote de mensagens enviadas antes de :before; SKIP LOCKED evita que dois nós disputem as mesmas linhas
+	@Modifying
+	@Transactional
+	@Query(value = """
+			DELETE FROM email_outbox WHERE outbox_id IN (
+				SELECT outbox_id FROM email_outbox
+				WHERE status = 'SENT' AND date_sent < :before
+				ORDER BY date_sent
+				LIMIT :limit
+				FOR UPDATE SKIP LOCKED)
+			""", nativeQuery = true)
+	int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+	
+	// Um resumo que falhou volta a PENDING no lugar do resumo criado enquanto ele era enviado
+	@Modifying
+	@Query("""
+			delete from EmailOutbox e
+			where e.orderId = :orderId and e.type = com.mikuexpress.mikuexpress.enums.EmailType.STATUS_DIGEST
+			and e.status = com.mikuexpress.mikuexpress.enums.OutboxStatus.PENDING and e.id <> :outboxId
+			""")
+	int deleteOtherPendingDigests(@Param("orderId") Long orderId, @Param("outboxId") Long outboxId);
+}
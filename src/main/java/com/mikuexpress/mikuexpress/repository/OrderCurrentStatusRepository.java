@@ -0,0 +1,45 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Atualização em lote do status atual dos pedidos (orders.current_status/last_updated).
+ * 
+ * Usa a mesma conexão da transação JPA em andamento e envia todos os UPDATEs
+ * em um único lote JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderCurrentStatusRepository {
+
+	// Mesma regra de OrderRepository.updateCurrentStatus: só avança o status atual
+	private static final String UPDATE = """
+			update orders set current_status = ?, last_updated = ?
+			where order_id = ? and (last_updated is null or last_updated <= ?)
+			""";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Atualiza o status atual de cada pedido a partir de suas novas atualizações de status.
+	 * 
+	 * @param statusUpdates Atualizações já salvas, com o pedido associado
+	 */
+	public void updateCurrentStatuses(List<StatusUpdate> statusUpdates) {
+		jdbcTemplate.batchUpdate(UPDATE, statusUpdates, statusUpdates.size(), (ps, statusUpdate) -> {
+			Timestamp dateUpdate = Timestamp.valueOf(statusUpdate.getDateUpdate());
+			ps.setString(1, statusUpdate.getStatus());
+			ps.setTimestamp(2, dateUpdate);
+			ps.setLong(3, statusUpdate.getOrder().getId());
+			ps.setTimestamp(4, dateUpdate);
+		});
+	}
+}
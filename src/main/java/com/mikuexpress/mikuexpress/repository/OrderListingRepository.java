@@ -0,0 +1,133 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.mikuexpress.mikuexpress.dto.OrderFilterDTO;
+import com.mikuexpress.mikuexpress.dto.OrderSummaryDTO;
+
+/**
+ * Listagem de pedidos do administrador direto em SQL.
+ * 
+ * As páginas usam paginação por chave (keyset) em (date_create, order_id): cada página
+ * continua a partir do último pedido da anterior, então o custo não cresce com o
+ * número da página. A exportação lê por cursor JDBC com fetch size fixo
+ * (mikuexpress.admin.orders.export-fetch-size), mantendo a memória constante.
+ */
+@Repository
+public class OrderListingRepository {
+
+	private static final String SELECT = """
+			select o.order_id, o.tracking_code, o.source, o.destination, o.distance, o.price,
+			       o.customer_email, o.customer_name, o.weight_in_kg, o.date_create, o.current_status
+			from orders o
+			where 1 = 1
+			""";
+	
+	private static final String ORDER_BY = " order by o.date_create desc, o.order_id desc";
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+	public OrderListingRepository(
+			DataSource dataSource,
+			@Value("${mikuexpress.admin.orders.export-fetch-size}") int exportFetchSize) {
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		
+		JdbcTemplate streaming = new JdbcTemplate(dataSource);
+		streaming.setFetchSize(exportFetchSize);
+		this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+	}
+	
+	/**
+	 * Busca uma página de pedidos, do mais recente ao mais antigo.
+	 * 
+	 * @param filter Filtros opcionais
+	 * @param afterDateCreate Data de criação do último pedido da página anterior (null na primeira página)
+	 * @param afterId ID do último pedido da página anterior (null na primeira página)
+	 * @param limit Quantidade máxima de pedidos
+	 * @return Pedidos da página
+	 */
+	public List<OrderSummaryDTO> findPage(OrderFilterDTO filter, LocalDateTime afterDateCreate, Long afterId, int limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = new StringBuilder(SELECT).append(where(filter, params));
+		
+		if (afterDateCreate != null && afterId != null) {
+			sql.append(" and (o.date_create, o.order_id) < (:afterDateCreate, :afterId)");
+			params.addValue("afterDateCreate", afterDateCreate);
+			params.addValue("afterId", afterId);
+		}
+		sql.append(ORDER_BY).append(" limit :limit");
+		params.addValue("limit", limit);
+		
+		return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> toSummary(rs));
+	}
+	
+	/**
+	 * Percorre todos os pedidos do filtro, do mais recente ao mais antigo, sem carregá-los
+	 * todos em memória.
+	 * 
+	 * Deve ser chamado dentro de uma transação: o driver do Postgres só usa cursor
+	 * (fetch size) com autocommit desligado.
+	 * 
+	 * @param filter Filtros opcionais
+	 * @param consumer Recebe cada pedido lido
+	 */
+	public void stream(OrderFilterDTO filter, Consumer<OrderSummaryDTO> consumer) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		String sql = SELECT + where(filter, params) + ORDER_BY;
+		streamingJdbcTemplate.query(sql, params, rs -> {
+			consumer.accept(toSummary(rs));
+		});
+	}
+	
+	private String where(OrderFilterDTO filter, MapSqlParameterSource params) {
+		StringBuilder where = new StringBuilder();
+		if (filter == null) {
+			return "";
+		}
+		if (filter.customerEmail() != null && !filter.customerEmail().isBlank()) {
+			where.append(" and o.customer_email = :customerEmail");
+			params.addValue("customerEmail", filter.customerEmail());
+		}
+		if (filter.from() != null) {
+			where.append(" and o.date_create >= :from");
+			params.addValue("from", filter.from());
+		}
+		if (filter.to() != null) {
+			where.append(" and o.date_create < :to");
+			params.addValue("to", filter.to());
+		}
+		if (filter.status() != null && !filter.status().isBlank()) {
+			where.append(" and o.current_status = :status");
+			params.addValue("status", filter.status());
+		}
+		return where.toString();
+	}
+	
+	private OrderSummaryDTO toSummary(ResultSet rs) throws SQLException {
+		return new OrderSummaryDTO(
+				rs.getLong("order_id"),
+				rs.getString("tracking_code"),
+				rs.getString("source"),
+				rs.getString("destination"),
+				rs.getString("distance"),
+				rs.getDouble("price"),
+				rs.getString("customer_email"),
+				rs.getString("customer_name"),
+				rs.getDouble("weight_in_kg"),
+				rs.getObject("date_create", LocalDateTime.class),
+				rs.getString("current_status"));
+	}
+}
@@ -1,15 +1,61 @@
 package com.mikuexpress.mikuexpress.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.mikuexpress.mikuexpress.dto.OrderCodeDTO;
+import com.mikuexpress.mikuexpress.dto.OrderVersionDTO;
 import com.mikuexpress.mikuexpress.entity.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
 	Optional<Order> findByTrackingCode(String code);
 	
+	// Pedido(s) e histórico de status em uma única consulta, sem N+1 ao montar as respostas
+	@EntityGraph(attributePaths = "statusUpdates")
+	Optional<Order> findWithStatusUpdatesByTrackingCode(String code);
+	
+	@EntityGraph(attributePaths = "statusUpdates")
+	Optional<Order> findWithStatusUpdatesById(Long id);
+	
+	@EntityGraph(attributePaths = "statusUpdates")
+	List<Order> findWithStatusUpdatesByCustomerEmailOrderByDateCreateDesc(String customerEmail);
+	
 	List<Order> findByCustomerEmail(String customerEmail);
+	
+	@Query("select o.trackingCode from Order o where o.id = :id")
+	Optional<String> findTrackingCodeById(@Param("id") Long id);
+	
+	@Query("select new com.mikuexpress.mikuexpress.dto.OrderCodeDTO(o.id, o.trackingCode) from Order o where o.trackingCode in :codes")
+	List<OrderCodeDTO> findIdsByTrackingCodes(@Param("codes") Collection<String> codes);
+	
+	// Só avança o status atual: uma atualização mais antiga que chegue depois não o sobrescreve
+	@Modifying
+	@Query("""
+			update Order o set o.currentStatus = :status, o.lastUpdated = :dateUpdate
+			where o.id = :id and (o.lastUpdated is null or o.lastUpdated <= :dateUpdate)
+			""")
+	int updateCurrentStatus(@Param("id") Long id, @Param("status") String status, @Param("dateUpdate") LocalDateTime dateUpdate);
+	
+	@Query("""
+			select new com.mikuexpress.mikuexpress.dto.OrderVersionDTO(count(distinct o), count(s), max(o.id), max(s.dateUpdate))
+			from Order o left join o.statusUpdates s
+			where o.trackingCode = :code
+			""")
+	OrderVersionDTO findVersionByTrackingCode(@Param("code") String code);
+	
+	@Query("""
+			select new com.mikuexpress.mikuexpress.dto.OrderVersionDTO(count(distinct o), count(s), max(o.id), max(s.dateUpdate))
+			from Order o left join o.statusUpdates s
+			where o.customerEmail = :customerEmail
+			""")
+	OrderVersionDTO findVersionByCustomerEmail(@Param("customerEmail") String customerEmail);
 }
@@ -0,0 +1,35 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.entity.RefreshToken;
+
+import jakarta.persistence.LockModeType;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+	// Bloqueia a linha para que duas trocas simultâneas do mesmo token não gerem dois sucessores
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Optional<RefreshToken> findByTokenHash(String tokenHash);
+	
+	@Modifying
+	@Query("update RefreshToken r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+	int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+	
+	@Modifying
+	@Query("update RefreshToken r set r.revokedAt = :now where r.userId = :userId and r.revokedAt is null")
+	int revokeAllForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+	
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken r where r.expiresAt <= :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,26 @@
+package com.mikuexpress.mikuexpress.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.entity.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+	@Query("select r.revocationKey from RevokedToken r where r.expiresAt > :now")
+	List<String> findActiveKeys(@Param("now") LocalDateTime now);
+	
+	@Query("select r.revocationKey from RevokedToken r where r.revokedAt >= :since")
+	List<String> findKeysRevokedSince(@Param("since") LocalDateTime since);
+	
+	@Modifying
+	@Transactional
+	@Query("delete from RevokedToken r where r.expiresAt <= :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+}
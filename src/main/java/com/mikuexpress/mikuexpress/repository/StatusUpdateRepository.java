@@ -1,9 +1,13 @@
 package com.mikuexpress.mikuexpress.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.mikuexpress.mikuexpress.entity.StatusUpdate;
 
 public interface StatusUpdateRepository extends JpaRepository<StatusUpdate, Long>{
 
+	List<StatusUpdate> findByOrderIdAndDateUpdateGreaterThanEqualOrderByDateUpdateAsc(Long orderId, LocalDateTime since);
 }
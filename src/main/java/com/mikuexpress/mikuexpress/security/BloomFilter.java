@@ -0,0 +1,65 @@
+package com.mikuexpress.mikuexpress.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de strings, seguro para uso concorrente.
+ * 
+ * {@link #mightContain} nunca retorna false para uma chave adicionada; retorna true para
+ * uma chave não adicionada com probabilidade próxima de falsePositiveRate enquanto o
+ * número de chaves não passar de expectedInsertions. Não há remoção: o filtro é
+ * reconstruído quando as chaves antigas deixam de valer.
+ */
+final class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashCount;
+
+	BloomFilter(long expectedInsertions, double falsePositiveRate) {
+		long n = Math.max(expectedInsertions, 1);
+		long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+		this.bitCount = words.length() * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+	}
+
+	void put(String key) {
+		long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+		long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			long mask = 1L << bit;
+			words.getAndAccumulate((int) (bit >>> 6), mask, (current, m) -> current | m);
+		}
+	}
+
+	boolean mightContain(String key) {
+		long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+		long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	long sizeInBytes() {
+		return words.length() * 8L;
+	}
+
+	// FNV-1a de 64 bits com semente, seguido da mistura final do SplitMix64
+	private static long hash(String key, long seed) {
+		long h = 0xCBF29CE484222325L ^ seed;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b & 0xFF;
+			h *= 0x100000001B3L;
+		}
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+}
@@ -0,0 +1,111 @@
+package com.mikuexpress.mikuexpress.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PasswordEncoder que executa o hashing (BCrypt) em um pool próprio e limitado.
+ * 
+ * O BCrypt é caro de propósito. Rodando direto nas threads do Tomcat, uma rajada de
+ * logins ou cadastros ocupa todas elas e atrasa as consultas baratas (rastreio). Aqui
+ * no máximo threads hashes rodam ao mesmo tempo e no máximo queueCapacity aguardam;
+ * acima disso a requisição é recusada na hora com {@link PasswordHashingBusyException}
+ * (429), então nunca há mais que threads + queueCapacity threads do Tomcat paradas
+ * esperando um hash.
+ * 
+ * Métricas: mikuexpress.password.queue (espera na fila), mikuexpress.password.hash
+ * (tempo do hash, por operação) e mikuexpress.password.rejected.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Timer queueTime;
+	private final Timer encodeTime;
+	private final Timer matchesTime;
+	private final Counter rejected;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				Thread.ofPlatform().name("password-hash-", 0).daemon().factory());
+		this.queueTime = Timer.builder("mikuexpress.password.queue")
+				.description("Tempo de espera na fila de hashing de senha")
+				.register(meterRegistry);
+		this.encodeTime = Timer.builder("mikuexpress.password.hash")
+				.tag("operation", "encode")
+				.description("Tempo de hashing de senha")
+				.register(meterRegistry);
+		this.matchesTime = Timer.builder("mikuexpress.password.hash")
+				.tag("operation", "matches")
+				.description("Tempo de hashing de senha")
+				.register(meterRegistry);
+		this.rejected = Counter.builder("mikuexpress.password.rejected")
+				.description("Hashes de senha recusados por fila cheia")
+				.register(meterRegistry);
+		log.info("Hashing de senha limitado a {} threads e {} na fila", threads, queueCapacity);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return execute(encodeTime, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return execute(matchesTime, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		// Só lê o custo do hash, não precisa do pool
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	private <T> T execute(Timer hashTime, Callable<T> hash) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				queueTime.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				return hashTime.recordCallable(hash);
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new PasswordHashingBusyException();
+		}
+		
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingBusyException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException("Erro no hashing de senha", e.getCause());
+		}
+	}
+}
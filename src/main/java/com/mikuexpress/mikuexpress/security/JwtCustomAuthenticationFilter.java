@@ -1,5 +1,7 @@
 package com.mikuexpress.mikuexpress.security;
 
+import java.time.Instant;
+
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -8,6 +10,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.mikuexpress.mikuexpress.entity.UserGeneric;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.io.IOException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,6 +25,11 @@ public class JwtCustomAuthenticationFilter extends OncePerRequestFilter {
 
 	private final JwtTokenProvider jwtTokenProvider;
 	private final UserDetailsService userDetailsService;
+	private final PrincipalCache principalCache;
+	private final TokenRevocationList tokenRevocationList;
+	
+	// Monta o principal a partir das claims do token em vez de consultar o banco a cada requisição
+	private final boolean statelessPrincipal;
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,24 +40,32 @@ public class JwtCustomAuthenticationFilter extends OncePerRequestFilter {
 
 			if (StringUtils.hasText(jwt)) {
 				try {
-					String username = jwtTokenProvider.getUsernameFromToken(jwt);
-					log.debug("Token JWT encontrado para usuário: {}", username);
+					// Única verificação de assinatura da requisição
+					Claims claims = jwtTokenProvider.parseClaims(jwt);
 					
-					UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+					// Consulta apenas o filtro de Bloom em memória, salvo em possíveis revogações
+					if (tokenRevocationList.isRevoked(claims)) {
+						log.debug("Token JWT revogado para usuário: {}", claims.getSubject());
+						SecurityContextHolder.clearContext();
+						filterChain.doFilter(request, response);
+						return;
+					}
 					
-					if (jwtTokenProvider.validateToken(jwt, userDetails)) {
-						if (userDetails instanceof UserGeneric user) {
-							CustomAuthentication authentication = new CustomAuthentication(user);
-							SecurityContextHolder.getContext().setAuthentication(authentication);
-							log.debug("Autenticação JWT configurada para usuário: {} (ID: {})", user.getEmail(), user.getId());
-						} else {
-							log.warn("UserDetails retornado não é uma instância de UserGeneric: {}", 
-									userDetails != null ? userDetails.getClass().getName() : "null");
-							// Limpar contexto se o tipo não for correto
-							SecurityContextHolder.clearContext();
+					UserGeneric user = statelessPrincipal ? resolveFromClaims(claims) : null;
+					
+					if (user == null) {
+						Instant loadStartedAt = Instant.now();
+						user = loadFromDatabase(claims);
+						if (user != null && statelessPrincipal) {
+							principalCache.remember(user, loadStartedAt);
 						}
+					}
+					
+					if (user != null) {
+						CustomAuthentication authentication = new CustomAuthentication(user);
+						SecurityContextHolder.getContext().setAuthentication(authentication);
+						log.debug("Autenticação JWT configurada para usuário: {} (ID: {})", user.getEmail(), user.getId());
 					} else {
-						log.warn("Token JWT inválido para usuário: {}", username);
 						SecurityContextHolder.clearContext();
 					}
 				} catch (Exception ex) {
@@ -74,6 +90,42 @@ public class JwtCustomAuthenticationFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 	
+	/**
+	 * Monta o principal a partir das claims do token, sem consultar o banco.
+	 * 
+	 * Retorna null quando o token não tem a claim uid (emitido antes dela existir) ou é
+	 * anterior a uma alteração do usuário; nesses casos o usuário é buscado no banco.
+	 */
+	private UserGeneric resolveFromClaims(Claims claims) {
+		Long userId = jwtTokenProvider.getUserId(claims);
+		if (userId == null) {
+			log.debug("Token JWT sem claim uid para usuário: {}", claims.getSubject());
+			return null;
+		}
+		
+		return principalCache.resolve(userId, claims.getIssuedAt(), id -> jwtTokenProvider.toPrincipal(claims));
+	}
+	
+	private UserGeneric loadFromDatabase(Claims claims) {
+		String username = claims.getSubject();
+		log.debug("Token JWT encontrado para usuário: {}", username);
+		
+		UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+		
+		if (!jwtTokenProvider.validateToken(claims, userDetails)) {
+			log.warn("Token JWT inválido para usuário: {}", username);
+			return null;
+		}
+		
+		if (userDetails instanceof UserGeneric user) {
+			return user;
+		}
+		
+		log.warn("UserDetails retornado não é uma instância de UserGeneric: {}", 
+				userDetails != null ? userDetails.getClass().getName() : "null");
+		return null;
+	}
+	
 	private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -4,7 +4,8 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
@@ -14,21 +15,48 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.enums.Role;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+/**
+ * Emite e valida os tokens JWT.
+ * 
+ * A chave HMAC e o parser são montados uma vez na inicialização. Tokens já verificados
+ * ficam em um cache limitado até expirarem, então requisições seguidas com o mesmo token
+ * não repetem a verificação da assinatura. Métricas: cache "jwt" (cache.gets).
+ */
 @Component
 public class JwtTokenProvider {
 
-	@Value("${jwt.secret-key}")
-	private String secretKeyString;
-	
-	@Value("${jwt.expiration-ms}")
-	private long jwtExpirationInMs;
+	private final long jwtExpirationInMs;
+	private final SecretKey signingKey;
+	private final JwtParser parser;
+	private final Cache<String, Claims> verifiedTokens;
 	
-	private SecretKey getSigningKey() {
-		return Keys.hmacShaKeyFor(secretKeyString.getBytes());
+	public JwtTokenProvider(
+			MeterRegistry meterRegistry,
+			@Value("${jwt.secret-key}") String secretKeyString,
+			@Value("${jwt.expiration-ms}") long jwtExpirationInMs,
+			@Value("${mikuexpress.cache.jwt.max-size}") long maxVerifiedTokens) {
+		this.jwtExpirationInMs = jwtExpirationInMs;
+		this.signingKey = Keys.hmacShaKeyFor(secretKeyString.getBytes());
+		this.parser = Jwts.parser().verifyWith(signingKey).build();
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maxVerifiedTokens)
+				.expireAfter(new TokenExpiry())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt");
 	}
 	
 	public String generateToken(Authentication authentication) {
@@ -40,37 +68,112 @@ public class JwtTokenProvider {
 				.map(GrantedAuthority::getAuthority)
 				.toList();
 		
-		return Jwts.builder().subject(userPrincipal.getUsername())
-				.claim("roles", roles)
+		var builder = Jwts.builder().subject(userPrincipal.getUsername())
+				.claim("roles", roles);
+		
+		// Claims usadas para montar o principal sem consultar o banco (ver JwtCustomAuthenticationFilter)
+		if (userPrincipal instanceof UserGeneric user) {
+			builder.claim("uid", user.getId())
+					.claim("name", user.getName());
+		}
+		
+		return builder
+				.id(UUID.randomUUID().toString())
 				.issuedAt(Date.from(now))
 				.expiration(Date.from(expiryDate))
-				.signWith(getSigningKey())
+				.signWith(signingKey)
 				.compact();
 	}
 	
+	/**
+	 * Valida assinatura e expiração do token e retorna suas claims.
+	 * 
+	 * Um token já verificado é retornado do cache sem nova verificação de assinatura;
+	 * a entrada expira junto com o token.
+	 * 
+	 * @param token Token JWT recebido no header Authorization
+	 * @return Claims do token
+	 * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+	 */
+	public Claims parseClaims(String token) {
+		Claims cached = verifiedTokens.getIfPresent(token);
+		if (cached != null) {
+			return cached;
+		}
+		
+		Claims claims = parser.parseSignedClaims(token).getPayload();
+		if (claims.getExpiration() != null) {
+			verifiedTokens.put(token, claims);
+		}
+		return claims;
+	}
+	
+	/**
+	 * Monta o principal a partir das claims de um token já validado.
+	 * 
+	 * O objeto não é uma entidade gerenciada: só tem id, email, nome e role.
+	 * 
+	 * @param claims Claims retornadas por {@link #parseClaims(String)}
+	 * @return UserGeneric com os dados do token, ou null se o token não tiver a claim uid
+	 */
+	public UserGeneric toPrincipal(Claims claims) {
+		Long userId = getUserId(claims);
+		List<?> roles = claims.get("roles", List.class);
+		if (userId == null || roles == null || roles.isEmpty()) {
+			return null;
+		}
+		
+		UserGeneric principal = new UserGeneric();
+		principal.setId(userId);
+		principal.setEmail(claims.getSubject());
+		principal.setName(claims.get("name", String.class));
+		principal.setRole(Role.valueOf(roles.get(0).toString()));
+		return principal;
+	}
+	
+	/**
+	 * Retorna a claim uid, ou null em tokens emitidos antes dela existir.
+	 */
+	public Long getUserId(Claims claims) {
+		Object userId = claims.get("uid");
+		return userId instanceof Number number ? number.longValue() : null;
+	}
+	
 	public String getUsernameFromToken(String token) {
-		return getClaimFromToken(token, Claims::getSubject);
+		return parseClaims(token).getSubject();
 	}
 
-	private <T> T getClaimFromToken(String token,Function<Claims, T> claimsResolver) {
-		final Claims claims = getAllClaimsFromToken(token);
-		
-		return claimsResolver.apply(claims);
+	/**
+	 * Confere se as claims de um token já verificado pertencem ao usuário informado.
+	 * 
+	 * @param claims Claims retornadas por {@link #parseClaims(String)}
+	 * @param userDetails Usuário carregado pelo subject do token
+	 * @return true se o subject for o usuário e o token não tiver expirado
+	 */
+	public boolean validateToken(Claims claims, UserDetails userDetails) {
+		return claims.getSubject().equals(userDetails.getUsername())
+				&& !claims.getExpiration().before(new Date());
 	}
 
-	private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
-    }
+	/**
+	 * Mantém cada token verificado em cache somente até a sua expiração.
+	 */
+	private static final class TokenExpiry implements Expiry<String, Claims> {
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
+		@Override
+		public long expireAfterCreate(String key, Claims value, long currentTime) {
+			long remainingMs = value.getExpiration().getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+		}
 
-    private boolean isTokenExpired(String token) {
-        final Date expiration = getClaimFromToken(token, Claims::getExpiration);
-        return expiration.before(new Date());
-    }
-	
-	
+		@Override
+		public long expireAfterUpdate(String key, Claims value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Claims value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
 }
@@ -0,0 +1,17 @@
+package com.mikuexpress.mikuexpress.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Lançada quando a fila de hashing de senha está cheia; respondida com 429 (TOO_MANY_REQUESTS).
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class PasswordHashingBusyException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PasswordHashingBusyException() {
+		super("Muitas requisições de autenticação no momento. Tente novamente em instantes.");
+	}
+}
@@ -0,0 +1,131 @@
+package com.mikuexpress.mikuexpress.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.event.UserChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache dos principals montados a partir das claims do token JWT, chaveado pelo ID do usuário.
+ * 
+ * Quando um usuário é alterado ou excluído ({@link UserChangedEvent}), a entrada é removida
+ * e o momento da alteração é guardado por jwt.expiration-ms. Tokens emitidos antes disso
+ * carregam claims antigas: para eles {@link #resolve} retorna null e o filtro consulta o
+ * banco (um usuário excluído deixa de autenticar). Alterações feitas por outras instâncias
+ * não chegam aqui; nesse caso as claims valem até o token expirar. Exclusões valem em
+ * todas as instâncias porque também revogam os tokens do usuário ({@link TokenRevocationList}),
+ * verificados antes deste cache.
+ * 
+ * Métricas: acertos e falhas com o nome de cache "principal" (cache.gets).
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+	private final Cache<Long, UserGeneric> principals;
+	private final Cache<Long, Instant> changes;
+
+	public PrincipalCache(
+			MeterRegistry meterRegistry,
+			@Value("${mikuexpress.cache.principal.max-size}") long maxSize,
+			@Value("${mikuexpress.cache.principal.ttl}") Duration ttl,
+			@Value("${jwt.expiration-ms}") long jwtExpirationInMs) {
+		this.principals = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		this.changes = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofMillis(jwtExpirationInMs))
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, principals, "principal");
+	}
+
+	/**
+	 * Retorna o principal do usuário dono do token sem consultar o banco.
+	 * 
+	 * As claims só entram no cache se o token for posterior à última alteração do usuário.
+	 * A verificação e a gravação são feitas na mesma operação atômica da chave que
+	 * {@link #onUserChanged} usa, então uma requisição com token antigo que esteja montando
+	 * o principal durante a invalidação não devolve as claims antigas ao cache.
+	 * 
+	 * @param userId ID do usuário (claim uid)
+	 * @param issuedAt Data de emissão do token
+	 * @param fromClaims Monta o principal a partir das claims quando não há entrada em cache
+	 * @return UserGeneric em cache ou montado das claims, ou null se o token for anterior
+	 *         a uma alteração do usuário e o principal atual ainda não estiver em cache
+	 */
+	public UserGeneric resolve(Long userId, Date issuedAt, Function<Long, UserGeneric> fromClaims) {
+		UserGeneric cached = principals.getIfPresent(userId);
+		if (cached != null) {
+			return cached;
+		}
+		return principals.asMap().compute(userId, (id, current) -> {
+			if (current != null) {
+				return current;
+			}
+			return changedSince(id, issuedAt == null ? null : issuedAt.toInstant()) ? null : fromClaims.apply(id);
+		});
+	}
+
+	/**
+	 * Guarda o principal carregado do banco para um token anterior à última alteração.
+	 * 
+	 * Não guarda nada se o usuário foi alterado depois que a consulta começou, pois a
+	 * consulta pode ter lido os dados anteriores à alteração.
+	 * 
+	 * @param user Usuário carregado pelo UserDetailsService
+	 * @param loadStartedAt Momento em que a consulta ao banco começou
+	 */
+	public void remember(UserGeneric user, Instant loadStartedAt) {
+		principals.asMap().compute(user.getId(), (id, current) ->
+				changedSince(id, loadStartedAt) ? current : copyOf(user));
+	}
+
+	/**
+	 * Remove o principal do usuário alterado depois que a transação for confirmada.
+	 * 
+	 * @param event Evento publicado por UserPublicServcice ou UserAdminServcice
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onUserChanged(UserChangedEvent event) {
+		principals.asMap().compute(event.userId(), (id, current) -> {
+			changes.put(id, Instant.now());
+			return null;
+		});
+		log.debug("Principal do usuário {} removido do cache", event.userId());
+	}
+
+	// Momentos sem data (tokens sem iat) são tratados como anteriores à alteração
+	private boolean changedSince(Long userId, Instant since) {
+		Instant changedAt = changes.getIfPresent(userId);
+		return changedAt != null && (since == null || !since.isAfter(changedAt));
+	}
+
+	/**
+	 * Cópia somente com os campos usados na autenticação, sem o hash da senha.
+	 */
+	static UserGeneric copyOf(UserGeneric user) {
+		UserGeneric principal = new UserGeneric();
+		principal.setId(user.getId());
+		principal.setEmail(user.getEmail());
+		principal.setName(user.getName());
+		principal.setRole(user.getRole());
+		return principal;
+	}
+}
@@ -0,0 +1,235 @@
+package com.mikuexpress.mikuexpress.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mikuexpress.mikuexpress.entity.RevokedToken;
+import com.mikuexpress.mikuexpress.repository.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lista de tokens JWT revogados antes da expiração.
+ * 
+ * As revogações ficam na tabela revoked_token; em memória fica apenas um filtro de Bloom
+ * das chaves revogadas. A verificação a cada requisição ({@link #isRevoked}) consulta só
+ * o filtro: o banco é consultado apenas quando o filtro indica uma possível revogação
+ * (token de fato revogado ou falso positivo), e o resultado dessa consulta fica em cache.
+ * 
+ * Dois tipos de chave:
+ * - "jti:<id do token>" revoga um token (logout)
+ * - "uid:<id do usuário>" revoga todos os tokens do usuário emitidos até a revogação
+ *   (troca de senha e logout forçado pelo administrador)
+ * 
+ * O filtro é montado a partir do banco na inicialização e recebe as revogações feitas
+ * por outras instâncias a cada mikuexpress.security.revocation.sync-interval-ms. Como
+ * não permite remoção, é reconstruído a cada rebuild-interval-ms sem as revogações de
+ * tokens que já expiraram.
+ * 
+ * Métricas: mikuexpress.security.revocation.lookups (consultas ao banco, por resultado).
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+	private static final String TOKEN_PREFIX = "jti:";
+	private static final String USER_PREFIX = "uid:";
+	
+	// Marca, no cache de consultas, uma chave que o banco confirmou não estar revogada
+	private static final LocalDateTime NOT_REVOKED = LocalDateTime.MIN;
+	
+	// Recua a sincronização para pegar revogações confirmadas depois do revoked_at
+	private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+	private final RevokedTokenRepository revokedTokenRepository;
+	private final JwtTokenProvider jwtTokenProvider;
+	private final long expectedInsertions;
+	private final double falsePositiveRate;
+	private final Duration jwtExpiration;
+	private final Cache<String, LocalDateTime> lookups;
+	private final Counter revokedLookups;
+	private final Counter falsePositiveLookups;
+	
+	private volatile BloomFilter filter;
+	private volatile LocalDateTime lastSync;
+
+	public TokenRevocationList(
+			RevokedTokenRepository revokedTokenRepository,
+			JwtTokenProvider jwtTokenProvider,
+			MeterRegistry meterRegistry,
+			@Value("${mikuexpress.security.revocation.expected-insertions}") long expectedInsertions,
+			@Value("${mikuexpress.security.revocation.false-positive-rate}") double falsePositiveRate,
+			@Value("${jwt.expiration-ms}") long jwtExpirationInMs) {
+		this.revokedTokenRepository = revokedTokenRepository;
+		this.jwtTokenProvider = jwtTokenProvider;
+		this.expectedInsertions = expectedInsertions;
+		this.falsePositiveRate = falsePositiveRate;
+		this.jwtExpiration = Duration.ofMillis(jwtExpirationInMs);
+		this.lookups = Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterWrite(jwtExpiration)
+				.build();
+		this.revokedLookups = meterRegistry.counter("mikuexpress.security.revocation.lookups", "result", "revoked");
+		this.falsePositiveLookups = meterRegistry.counter("mikuexpress.security.revocation.lookups", "result", "false_positive");
+	}
+
+	@PostConstruct
+	public void start() {
+		rebuild();
+	}
+
+	/**
+	 * Verifica se o token foi revogado.
+	 * 
+	 * @param claims Claims de um token com assinatura e expiração já validadas
+	 * @return true se o token ou todos os tokens do seu usuário tiverem sido revogados
+	 */
+	public boolean isRevoked(Claims claims) {
+		String tokenId = claims.getId();
+		if (tokenId != null && revokedAt(TOKEN_PREFIX + tokenId) != null) {
+			return true;
+		}
+		
+		Long userId = jwtTokenProvider.getUserId(claims);
+		if (userId == null) {
+			return false;
+		}
+		
+		LocalDateTime userRevokedAt = revokedAt(USER_PREFIX + userId);
+		// Tokens emitidos no mesmo segundo da revogação também são rejeitados (iat não tem milissegundos)
+		return userRevokedAt != null && !toDate(claims.getIssuedAt()).isAfter(userRevokedAt);
+	}
+
+	/**
+	 * Revoga um único token até a sua expiração.
+	 * 
+	 * @param claims Claims do token a ser revogado
+	 */
+	public void revokeToken(Claims claims) {
+		if (claims.getId() == null) {
+			throw new RuntimeException("Token sem identificador (jti) não pode ser revogado.");
+		}
+		
+		revoke(TOKEN_PREFIX + claims.getId(), jwtTokenProvider.getUserId(claims), toDate(claims.getExpiration()));
+	}
+
+	/**
+	 * Revoga todos os tokens já emitidos para o usuário.
+	 * 
+	 * Tokens emitidos depois (novo login) continuam válidos.
+	 * 
+	 * @param userId ID do usuário
+	 */
+	public void revokeAllForUser(Long userId) {
+		revoke(USER_PREFIX + userId, userId, LocalDateTime.now().plus(jwtExpiration));
+	}
+
+	/**
+	 * Adiciona ao filtro as revogações gravadas por outras instâncias.
+	 */
+	@Scheduled(fixedDelayString = "${mikuexpress.security.revocation.sync-interval-ms}")
+	public void sync() {
+		LocalDateTime startedAt = LocalDateTime.now();
+		List<String> keys = revokedTokenRepository.findKeysRevokedSince(lastSync.minus(SYNC_OVERLAP));
+		
+		BloomFilter current = filter;
+		for (String key : keys) {
+			current.put(key);
+			lookups.invalidate(key);
+		}
+		lastSync = startedAt;
+	}
+
+	/**
+	 * Reconstrói o filtro sem as revogações de tokens que já expiraram.
+	 */
+	@Scheduled(initialDelayString = "${mikuexpress.security.revocation.rebuild-interval-ms}",
+			fixedDelayString = "${mikuexpress.security.revocation.rebuild-interval-ms}")
+	public void rebuild() {
+		LocalDateTime startedAt = LocalDateTime.now();
+		int deleted = revokedTokenRepository.deleteExpired(startedAt);
+		List<String> keys = revokedTokenRepository.findActiveKeys(startedAt);
+		
+		if (keys.size() > expectedInsertions) {
+			log.warn("{} revogações ativas excedem mikuexpress.security.revocation.expected-insertions ({}); a taxa de falsos positivos vai aumentar",
+					keys.size(), expectedInsertions);
+		}
+		
+		BloomFilter rebuilt = new BloomFilter(expectedInsertions, falsePositiveRate);
+		keys.forEach(rebuilt::put);
+		filter = rebuilt;
+		lookups.invalidateAll();
+		
+		// Revogações gravadas durante a reconstrução entraram apenas no filtro anterior
+		lastSync = startedAt;
+		sync();
+		
+		log.info("Filtro de revogação reconstruído com {} chaves ({} bytes); {} revogações expiradas removidas",
+				keys.size(), rebuilt.sizeInBytes(), deleted);
+	}
+
+	private void revoke(String key, Long userId, LocalDateTime expiresAt) {
+		RevokedToken revokedToken = new RevokedToken();
+		revokedToken.setRevocationKey(key);
+		revokedToken.setUserId(userId);
+		revokedToken.setRevokedAt(LocalDateTime.now());
+		revokedToken.setExpiresAt(expiresAt);
+		revokedTokenRepository.save(revokedToken);
+		
+		// Só entra no filtro depois de confirmada, para o cache de consultas não guardar o estado anterior
+		afterCommit(() -> {
+			filter.put(key);
+			lookups.invalidate(key);
+		});
+		log.info("Revogação registrada: {}", key);
+	}
+
+	private LocalDateTime revokedAt(String key) {
+		if (!filter.mightContain(key)) {
+			return null;
+		}
+		
+		LocalDateTime revokedAt = lookups.get(key, k -> revokedTokenRepository.findById(k)
+				.map(revoked -> {
+					revokedLookups.increment();
+					return revoked.getRevokedAt();
+				})
+				.orElseGet(() -> {
+					falsePositiveLookups.increment();
+					return NOT_REVOKED;
+				}));
+		return revokedAt == NOT_REVOKED ? null : revokedAt;
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	private static LocalDateTime toDate(Date date) {
+		return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+	}
+}
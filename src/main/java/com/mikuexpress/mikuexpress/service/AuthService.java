@@ -0,0 +1,118 @@
+package com.mikuexpress.mikuexpress.service;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.dto.LoginResponseDTO;
+import com.mikuexpress.mikuexpress.dto.ResetPassword;
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.repository.UserGenericRepository;
+import com.mikuexpress.mikuexpress.security.CustomAuthentication;
+import com.mikuexpress.mikuexpress.security.JwtTokenProvider;
+import com.mikuexpress.mikuexpress.security.TokenRevocationList;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthService {
+
+	private final JwtTokenProvider jwtTokenProvider;
+	private final TokenRevocationList tokenRevocationList;
+	private final UserGenericRepository userGenericRepository;
+	private final PasswordEncoder passwordEncoder;
+	private final RefreshTokenService refreshTokenService;
+
+	/**
+	 * Emite um novo token de acesso a partir de um refresh token, sem verificar a senha.
+	 * 
+	 * O refresh token apresentado é trocado por um novo, que vem na resposta.
+	 * 
+	 * @param refreshToken Refresh token recebido no login ou no último refresh
+	 * @return LoginResponseDTO com o novo token de acesso e o novo refresh token
+	 * @throws BadCredentialsException se o refresh token for inválido, expirado, revogado ou já usado
+	 */
+	public LoginResponseDTO refresh(String refreshToken) {
+		RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+		if (rotation == null) {
+			throw new BadCredentialsException("Refresh token inválido.");
+		}
+		
+		UserGeneric user = userGenericRepository.findById(rotation.userId())
+				.orElseThrow(() -> new BadCredentialsException("Usuário não encontrado."));
+		String token = jwtTokenProvider.generateToken(new CustomAuthentication(user));
+		
+		return LoginResponseDTO.of(token, rotation.refreshToken(), user.getEmail(), user.getName(), user.getRole(), user.getId());
+	}
+	
+	/**
+	 * Encerra a sessão revogando o token informado até a sua expiração e, se enviado,
+	 * o refresh token da mesma sessão.
+	 * 
+	 * @param token Token JWT enviado no header Authorization
+	 * @param refreshToken Refresh token da sessão (opcional)
+	 */
+	public void logout(String token, String refreshToken) {
+		tokenRevocationList.revokeToken(jwtTokenProvider.parseClaims(token));
+		if (refreshToken != null) {
+			refreshTokenService.revokeFamily(refreshToken);
+		}
+	}
+	
+	/**
+	 * Altera a senha do usuário e revoga todos os tokens (de acesso e refresh) emitidos
+	 * para ele até agora.
+	 * 
+	 * Após a troca o usuário precisa fazer login novamente, inclusive no dispositivo
+	 * que fez a alteração.
+	 * 
+	 * A senha atual é exigida para que um token de acesso vazado não baste para trocar
+	 * a senha e derrubar as sessões do dono da conta.
+	 * 
+	 * @param userId ID do usuário autenticado
+	 * @param dto DTO com a senha atual, a nova senha e a confirmação
+	 * @throws BadCredentialsException se a senha atual não conferir
+	 * @throws RuntimeException se a senha estiver vazia, se a confirmação não conferir
+	 *         ou se o usuário não for encontrado
+	 */
+	@Transactional
+	public void resetPassword(Long userId, ResetPassword dto) {
+		if (dto.newPassword() == null || dto.newPassword().isBlank()) {
+			throw new RuntimeException("A nova senha é obrigatória.");
+		}
+		if (!dto.newPassword().equals(dto.confirmNewPassword())) {
+			throw new RuntimeException("A confirmação não confere com a nova senha.");
+		}
+		
+		UserGeneric user = userGenericRepository.findById(userId)
+				.orElseThrow(() -> new RuntimeException("Usuário não encontrado."));
+		if (dto.currentPassword() == null || !passwordEncoder.matches(dto.currentPassword(), user.getPassword())) {
+			throw new BadCredentialsException("Senha atual incorreta.");
+		}
+		user.setPassword(passwordEncoder.encode(dto.newPassword()));
+		userGenericRepository.save(user);
+		
+		tokenRevocationList.revokeAllForUser(userId);
+		refreshTokenService.revokeAllForUser(userId);
+		log.info("Senha alterada e tokens revogados para o usuário ID: {}", userId);
+	}
+	
+	/**
+	 * Revoga todos os tokens emitidos para um usuário (logout forçado pelo administrador).
+	 * 
+	 * @param userId ID do usuário
+	 * @throws RuntimeException se o usuário não for encontrado
+	 */
+	public void forceLogout(Long userId) {
+		if (!userGenericRepository.existsById(userId)) {
+			throw new RuntimeException("Usuário não encontrado.");
+		}
+		tokenRevocationList.revokeAllForUser(userId);
+		refreshTokenService.revokeAllForUser(userId);
+		log.info("Logout forçado para o usuário ID: {}", userId);
+	}
+}
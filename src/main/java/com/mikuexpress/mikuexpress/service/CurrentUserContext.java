@@ -0,0 +1,36 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.mikuexpress.mikuexpress.entity.UserAdmin;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+
+/**
+ * Guarda, durante uma requisição, o UserPublic/UserAdmin do usuário autenticado já
+ * resolvido por {@link SecurityService}, para que chamadas repetidas na mesma
+ * requisição não voltem ao banco.
+ */
+@Component
+@RequestScope
+public class CurrentUserContext {
+
+	private UserPublic userPublic;
+	private UserAdmin userAdmin;
+
+	UserPublic userPublic(Supplier<UserPublic> loader) {
+		if (userPublic == null) {
+			userPublic = loader.get();
+		}
+		return userPublic;
+	}
+
+	UserAdmin userAdmin(Supplier<UserAdmin> loader) {
+		if (userAdmin == null) {
+			userAdmin = loader.get();
+		}
+		return userAdmin;
+	}
+}
@@ -0,0 +1,232 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.maps.DistanceMatrixApi;
+import com.google.maps.GeoApiContext;
+import com.google.maps.model.DistanceMatrix;
+import com.google.maps.model.DistanceMatrixElement;
+import com.google.maps.model.DistanceMatrixElementStatus;
+import com.google.maps.model.TravelMode;
+import com.google.maps.model.Unit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agrupa consultas de distância pendentes em uma única requisição N x M à
+ * API Google Maps Distance Matrix.
+ * 
+ * As consultas recebidas dentro de uma janela de google.maps.batch.window-ms são
+ * reunidas em matrizes que respeitam os limites da API (25 origens, 25 destinos e
+ * 100 elementos). Cada matriz é uma linha (uma origem para vários destinos) ou uma
+ * coluna (várias origens para um destino), então todo elemento calculado (e cobrado)
+ * foi pedido por alguma consulta.
+ * Cada chamador recebe apenas o seu elemento da matriz.
+ * 
+ * O limite de consultas por segundo (google.maps.api.qps) é aplicado pelo
+ * GeoApiContext configurado em GoogleMapsConfig.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DistanceMatrixDispatcher {
+
+	private static final int MAX_ORIGINS = 25;
+	private static final int MAX_DESTINATIONS = 25;
+	// Uma linha ou coluna tem no máximo 25 elementos; o limite de 100 vale para o tamanho do lote
+	private static final int MAX_ELEMENTS = 100;
+
+	private final GeoApiContext context;
+	private final MeterRegistry meterRegistry;
+	
+	@Qualifier("lookupExecutor")
+	private final ExecutorService lookupExecutor;
+	
+	private final BlockingQueue<PendingLookup> queue = new LinkedBlockingQueue<>();
+	
+	@Value("${google.maps.batch.window-ms}")
+	private long windowMs;
+	
+	private volatile boolean running;
+	private Thread collector;
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		collector = Thread.ofPlatform()
+				.daemon()
+				.name("distance-matrix-dispatcher")
+				.start(this::collectLoop);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		collector.interrupt();
+	}
+
+	/**
+	 * Agenda a consulta da distância entre dois endereços para o próximo lote.
+	 * 
+	 * @param origin Endereço de origem no formato "Cidade, Estado, BR"
+	 * @param destination Endereço de destino no formato "Cidade, Estado, BR"
+	 * @return CompletableFuture com a distância em quilômetros
+	 */
+	public CompletableFuture<Double> submit(String origin, String destination) {
+		PendingLookup lookup = new PendingLookup(origin, destination, new CompletableFuture<>());
+		queue.add(lookup);
+		return lookup.result();
+	}
+
+	private void collectLoop() {
+		while (running) {
+			try {
+				List<PendingLookup> batch = new ArrayList<>();
+				batch.add(queue.take());
+				
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+				while (batch.size() < MAX_ELEMENTS) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						break;
+					}
+					PendingLookup next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				
+				for (Matrix matrix : partition(batch)) {
+					lookupExecutor.execute(() -> send(matrix));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (Exception e) {
+				log.error("Erro no despachante do Google Distance Matrix", e);
+			}
+		}
+		
+		PendingLookup pending;
+		while ((pending = queue.poll()) != null) {
+			pending.result().completeExceptionally(new RuntimeException("Aplicação em desligamento"));
+		}
+	}
+
+	private List<Matrix> partition(List<PendingLookup> batch) {
+		List<Matrix> matrices = new ArrayList<>();
+		
+		for (PendingLookup lookup : batch) {
+			Matrix target = null;
+			for (Matrix matrix : matrices) {
+				if (matrix.accepts(lookup)) {
+					target = matrix;
+					break;
+				}
+			}
+			if (target == null) {
+				target = new Matrix();
+				matrices.add(target);
+			}
+			target.add(lookup);
+		}
+		return matrices;
+	}
+
+	private void send(Matrix matrix) {
+		String[] origins = matrix.origins.toArray(String[]::new);
+		String[] destinations = matrix.destinations.toArray(String[]::new);
+		
+		try {
+			log.info("Consultando Google Distance Matrix API: {} origem(ns) x {} destino(s) para {} consulta(s)",
+					origins.length, destinations.length, matrix.lookups.size());
+			meterRegistry.counter("mikuexpress.distance.matrix.requests").increment();
+			meterRegistry.summary("mikuexpress.distance.matrix.lookups").record(matrix.lookups.size());
+			
+			DistanceMatrix result = DistanceMatrixApi.newRequest(context)
+					.origins(origins)
+					.destinations(destinations)
+					.mode(TravelMode.DRIVING)
+					.units(Unit.METRIC)
+					.await();
+			
+			List<String> originList = List.of(origins);
+			List<String> destinationList = List.of(destinations);
+			for (PendingLookup lookup : matrix.lookups) {
+				int row = originList.indexOf(lookup.origin());
+				int column = destinationList.indexOf(lookup.destination());
+				DistanceMatrixElement element = row < result.rows.length && column < result.rows[row].elements.length
+						? result.rows[row].elements[column]
+						: null;
+				
+				if (element != null && element.status == DistanceMatrixElementStatus.OK && element.distance != null) {
+					long distanceInMeters = element.distance.inMeters;
+					double distanceInKms = distanceInMeters / 1000;
+					lookup.result().complete(distanceInKms);
+				} else {
+					log.warn("Não foi possível calcular a distância para: {} -> {}", lookup.origin(), lookup.destination());
+					lookup.result().completeExceptionally(
+							new RuntimeException("Não foi possível calcular a distância. Verifique os endereços."));
+				}
+			}
+		} catch (Exception e) {
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			log.error("Erro ao chamar API do Google Maps", e);
+			RuntimeException failure = new RuntimeException("Erro ao chamar API do Google Maps: " + e.getMessage());
+			matrix.lookups.forEach(lookup -> lookup.result().completeExceptionally(failure));
+		}
+	}
+
+	private record PendingLookup(String origin, String destination, CompletableFuture<Double> result) {
+	}
+
+	private static class Matrix {
+		private final LinkedHashSet<String> origins = new LinkedHashSet<>();
+		private final LinkedHashSet<String> destinations = new LinkedHashSet<>();
+		private final List<PendingLookup> lookups = new ArrayList<>();
+
+		// A matriz é uma linha (1 origem x M destinos) ou uma coluna (N origens x 1 destino):
+		// misturar as duas faria a API calcular combinações que ninguém pediu
+		boolean accepts(PendingLookup lookup) {
+			if (lookups.isEmpty()) {
+				return true;
+			}
+			boolean sameOrigin = origins.contains(lookup.origin());
+			boolean sameDestination = destinations.contains(lookup.destination());
+			if (sameOrigin && sameDestination) {
+				return true;
+			}
+			if (sameOrigin && origins.size() == 1) {
+				return destinations.size() < MAX_DESTINATIONS;
+			}
+			if (sameDestination && destinations.size() == 1) {
+				return origins.size() < MAX_ORIGINS;
+			}
+			return false;
+		}
+
+		void add(PendingLookup lookup) {
+			origins.add(lookup.origin());
+			destinations.add(lookup.destination());
+			lookups.add(lookup);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.entity.EmailOutbox;
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+import com.mikuexpress.mikuexpress.enums.EmailType;
+import com.mikuexpress.mikuexpress.enums.OutboxStatus;
+import com.mikuexpress.mikuexpress.repository.EmailDigestRepository;
+import com.mikuexpress.mikuexpress.repository.EmailOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+	private final EmailOutboxRepository emailOutboxRepository;
+	private final EmailDigestRepository emailDigestRepository;
+	
+	@Value("${mikuexpress.email.digest.enabled}")
+	private boolean digestEnabled;
+	
+	@Value("${mikuexpress.email.digest.window-ms}")
+	private long digestWindowMs;
+	
+	/**
+	 * Registra na caixa de saída o e-mail de criação de pedido.
+	 * 
+	 * Deve ser chamado dentro da mesma transação que salva o pedido: o e-mail só
+	 * será enviado (pelo EmailOutboxWorker) se o pedido for de fato gravado.
+	 * 
+	 * @param order Pedido já salvo (com ID)
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueueOrderCreated(Order order) {
+		enqueue(EmailType.ORDER_CREATED, order.getId(), null);
+	}
+	
+	/**
+	 * Registra na caixa de saída o e-mail de atualização de status.
+	 * 
+	 * Deve ser chamado dentro da mesma transação que salva a atualização de status.
+	 * 
+	 * Com o modo resumo ativo (mikuexpress.email.digest.enabled) o e-mail só é enviado
+	 * após mikuexpress.email.digest.window-ms, e as atualizações seguintes do mesmo pedido
+	 * feitas dentro da janela não geram novas mensagens: todas entram no mesmo e-mail,
+	 * com a linha do tempo completa. O índice único de resumos pendentes garante isso
+	 * também entre transações simultâneas.
+	 * 
+	 * @param order Pedido atualizado
+	 * @param statusUpdate Atualização de status já salva (com ID)
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueueStatusUpdate(Order order, StatusUpdate statusUpdate) {
+		if (!digestEnabled) {
+			enqueue(EmailType.STATUS_UPDATE, order.getId(), statusUpdate.getId(), 0);
+			return;
+		}
+		
+		emailDigestRepository.insertIfAbsent(List.of(statusUpdate), digestWindowMs);
+	}
+	
+	/**
+	 * Registra na caixa de saída os e-mails de várias atualizações de status de uma vez
+	 * (ingestão de leituras dos hubs).
+	 * 
+	 * Com o modo resumo ativo, gera no máximo uma mensagem por pedido (a partir da
+	 * atualização mais antiga) e nenhuma para pedidos que já têm resumo pendente,
+	 * em um único lote de INSERTs.
+	 * 
+	 * @param statusUpdates Atualizações já salvas (com ID), com o pedido associado
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueueStatusUpdates(List<StatusUpdate> statusUpdates) {
+		if (!digestEnabled) {
+			statusUpdates.forEach(statusUpdate -> enqueue(EmailType.STATUS_UPDATE, statusUpdate.getOrder().getId(), statusUpdate.getId(), 0));
+			return;
+		}
+		
+		Map<Long, StatusUpdate> firstByOrder = new LinkedHashMap<>();
+		for (StatusUpdate statusUpdate : statusUpdates) {
+			firstByOrder.merge(statusUpdate.getOrder().getId(), statusUpdate,
+					(current, candidate) -> candidate.getDateUpdate().isBefore(current.getDateUpdate()) ? candidate : current);
+		}
+		emailDigestRepository.insertIfAbsent(List.copyOf(firstByOrder.values()), digestWindowMs);
+	}
+	
+	private void enqueue(EmailType type, Long orderId, Long statusUpdateId) {
+		enqueue(type, orderId, statusUpdateId, 0);
+	}
+	
+	private void enqueue(EmailType type, Long orderId, Long statusUpdateId, long delayMs) {
+		LocalDateTime now = LocalDateTime.now();
+		
+		EmailOutbox email = new EmailOutbox();
+		email.setType(type);
+		email.setOrderId(orderId);
+		email.setStatusUpdateId(statusUpdateId);
+		email.setStatus(OutboxStatus.PENDING);
+		email.setAttempts(0);
+		email.setNextAttemptAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMs)));
+		email.setDateCreate(now);
+		
+		emailOutboxRepository.save(email);
+		log.debug("E-mail {} do pedido {} registrado na caixa de saída", type, orderId);
+	}
+}
@@ -0,0 +1,298 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mikuexpress.mikuexpress.entity.EmailOutbox;
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+import com.mikuexpress.mikuexpress.enums.EmailType;
+import com.mikuexpress.mikuexpress.enums.OutboxStatus;
+import com.mikuexpress.mikuexpress.repository.EmailOutboxRepository;
+import com.mikuexpress.mikuexpress.repository.OrderRepository;
+import com.mikuexpress.mikuexpress.repository.StatusUpdateRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consome a caixa de saída de e-mails (tabela email_outbox) em segundo plano.
+ * 
+ * A cada mikuexpress.email.outbox.poll-interval-ms as mensagens pendentes são reservadas
+ * (SELECT ... FOR UPDATE SKIP LOCKED, então vários nós podem rodar ao mesmo tempo) e
+ * entregues em lotes de até mikuexpress.email.outbox.batch-size a um pool de
+ * mikuexpress.email.outbox.workers threads. Cada lote é renderizado e enviado fora de
+ * qualquer transação, reaproveitando a conexão SMTP ({@link EmailService#sendBatch(List)}).
+ * 
+ * Em caso de falha a mensagem volta para PENDING com espera exponencial
+ * (backoff-ms, 2x backoff-ms, 4x ...). Após max-attempts tentativas ela fica como DEAD.
+ * Uma mensagem reservada por um nó que caiu volta a ser processada após lease-ms.
+ * Mensagens enviadas são removidas após mikuexpress.email.outbox.retention.
+ * 
+ * Métricas: mikuexpress.email.outbox.depth (tag status=pending|dead, atualizada a cada
+ * metrics-interval-ms) e mikuexpress.email.outbox.sent (tag result=sent|retry|dead).
+ */
+@Component
+@Slf4j
+public class EmailOutboxWorker {
+
+	private static final int CLEANUP_BATCH_SIZE = 1000;
+
+	private final EmailOutboxRepository emailOutboxRepository;
+	private final OrderRepository orderRepository;
+	private final StatusUpdateRepository statusUpdateRepository;
+	private final EmailService emailService;
+	private final TransactionTemplate transactionTemplate;
+	private final MeterRegistry meterRegistry;
+	private final ThreadPoolExecutor workers;
+	
+	private final AtomicLong pendingCount = new AtomicLong();
+	private final AtomicLong deadCount = new AtomicLong();
+	
+	@Value("${mikuexpress.email.outbox.max-attempts}")
+	private int maxAttempts;
+	
+	@Value("${mikuexpress.email.outbox.backoff-ms}")
+	private long backoffMs;
+	
+	@Value("${mikuexpress.email.outbox.lease-ms}")
+	private long leaseMs;
+	
+	@Value("${mikuexpress.email.outbox.batch-size}")
+	private int batchSize;
+	
+	@Value("${mikuexpress.email.outbox.retention}")
+	private Duration retention;
+	
+
+	public EmailOutboxWorker(
+			EmailOutboxRepository emailOutboxRepository,
+			OrderRepository orderRepository,
+			StatusUpdateRepository statusUpdateRepository,
+			EmailService emailService,
+			TransactionTemplate transactionTemplate,
+			MeterRegistry meterRegistry,
+			@Value("${mikuexpress.email.outbox.workers}") int workerCount) {
+		this.emailOutboxRepository = emailOutboxRepository;
+		this.orderRepository = orderRepository;
+		this.statusUpdateRepository = statusUpdateRepository;
+		this.emailService = emailService;
+		this.transactionTemplate = transactionTemplate;
+		this.meterRegistry = meterRegistry;
+		this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(workerCount * 4),
+				Thread.ofPlatform().name("email-worker-", 0).factory());
+		
+		Gauge.builder("mikuexpress.email.outbox.depth", pendingCount, AtomicLong::get)
+				.tag("status", "pending")
+				.description("Mensagens aguardando envio na caixa de saída")
+				.register(meterRegistry);
+		Gauge.builder("mikuexpress.email.outbox.depth", deadCount, AtomicLong::get)
+				.tag("status", "dead")
+				.description("Mensagens que esgotaram as tentativas de envio")
+				.register(meterRegistry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		workers.shutdown();
+	}
+
+	/**
+	 * Reserva as mensagens vencidas e as entrega ao pool de envio.
+	 * 
+	 * Reserva no máximo o espaço livre na fila do pool (em lotes), para que nenhuma
+	 * mensagem reservada fique esperando sem ser processada.
+	 */
+	@Scheduled(fixedDelayString = "${mikuexpress.email.outbox.poll-interval-ms}")
+	public void poll() {
+		try {
+			int capacity = workers.getQueue().remainingCapacity();
+			if (capacity > 0) {
+				List<Long> claimed = transactionTemplate.execute(status -> claim(capacity * batchSize));
+				for (int from = 0; from < claimed.size(); from += batchSize) {
+					List<Long> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+					workers.execute(() -> process(batch));
+				}
+			}
+		} catch (Exception e) {
+			log.error("Erro ao consultar a caixa de saída de e-mails", e);
+		}
+	}
+
+	/**
+	 * Atualiza as métricas de profundidade da caixa de saída.
+	 * 
+	 * Roda em intervalo próprio, mais longo que o do poll, para que as contagens não
+	 * sejam repetidas a cada segundo em cada nó.
+	 */
+	@Scheduled(fixedDelayString = "${mikuexpress.email.outbox.metrics-interval-ms}")
+	public void refreshMetrics() {
+		try {
+			pendingCount.set(emailOutboxRepository.countByStatus(OutboxStatus.PENDING));
+			deadCount.set(emailOutboxRepository.countByStatus(OutboxStatus.DEAD));
+		} catch (Exception e) {
+			log.error("Erro ao contar as mensagens da caixa de saída de e-mails", e);
+		}
+	}
+
+	/**
+	 * Remove, em lotes, as mensagens enviadas há mais de mikuexpress.email.outbox.retention.
+	 */
+	@Scheduled(fixedDelayString = "${mikuexpress.email.outbox.cleanup-interval-ms}")
+	public void deleteSent() {
+		LocalDateTime before = LocalDateTime.now().minus(retention);
+		int total = 0;
+		int deleted;
+		do {
+			deleted = emailOutboxRepository.deleteSentBefore(before, CLEANUP_BATCH_SIZE);
+			total += deleted;
+		} while (deleted == CLEANUP_BATCH_SIZE);
+		
+		if (total > 0) {
+			log.info("{} e-mails enviados removidos da caixa de saída", total);
+		}
+	}
+
+	private List<Long> claim(int limit) {
+		LocalDateTime now = LocalDateTime.now();
+		List<EmailOutbox> due = emailOutboxRepository.lockDue(now, limit);
+		
+		for (EmailOutbox email : due) {
+			email.setStatus(OutboxStatus.PROCESSING);
+			email.setNextAttemptAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMs)));
+		}
+		return due.stream().map(EmailOutbox::getId).toList();
+	}
+
+	private void process(List<Long> outboxIds) {
+		Map<Long, Exception> failed = new HashMap<>();
+		Map<Long, Supplier<MimeMessage>> builders = new LinkedHashMap<>();
+		
+		// Leitura em transação curta; a renderização e o envio SMTP acontecem sem conexão com o banco
+		for (Long outboxId : outboxIds) {
+			try {
+				builders.put(outboxId, transactionTemplate.execute(status -> prepare(outboxId)));
+			} catch (Exception e) {
+				failed.put(outboxId, e);
+			}
+		}
+		
+		Map<MimeMessage, Long> messages = new IdentityHashMap<>();
+		builders.forEach((outboxId, builder) -> {
+			try {
+				messages.put(builder.get(), outboxId);
+			} catch (Exception e) {
+				failed.put(outboxId, e);
+			}
+		});
+		
+		if (!messages.isEmpty()) {
+			try {
+				emailService.sendBatch(new ArrayList<>(messages.keySet()))
+						.forEach((message, error) -> failed.put(messages.get(message), error));
+			} catch (Exception e) {
+				messages.values().forEach(outboxId -> failed.putIfAbsent(outboxId, e));
+			}
+		}
+		
+		for (Long outboxId : outboxIds) {
+			Exception error = failed.get(outboxId);
+			if (error == null) {
+				markSent(outboxId);
+			} else {
+				markFailed(outboxId, error);
+			}
+		}
+	}
+
+	private Supplier<MimeMessage> prepare(Long outboxId) {
+		EmailOutbox email = emailOutboxRepository.findById(outboxId)
+				.orElseThrow(() -> new IllegalStateException("Mensagem não encontrada: " + outboxId));
+		Order order = orderRepository.findById(email.getOrderId())
+				.orElseThrow(() -> new IllegalStateException("Pacote não encontrado com ID: " + email.getOrderId()));
+		
+		if (email.getType() == EmailType.ORDER_CREATED) {
+			Hibernate.initialize(order.getStatusUpdates());
+			return () -> emailService.buildEmailCreate(order);
+		}
+		
+		StatusUpdate statusUpdate = statusUpdateRepository.findById(email.getStatusUpdateId())
+				.orElseThrow(() -> new IllegalStateException("Atualização de status não encontrada: " + email.getStatusUpdateId()));
+		if (email.getType() == EmailType.STATUS_UPDATE) {
+			return () -> emailService.buildEmailUpdate(order, statusUpdate);
+		}
+		
+		// Modo resumo: a mensagem cobre a atualização que a criou e todas as posteriores
+		List<StatusUpdate> timeline = statusUpdateRepository
+				.findByOrderIdAndDateUpdateGreaterThanEqualOrderByDateUpdateAsc(order.getId(), statusUpdate.getDateUpdate());
+		return () -> emailService.buildEmailDigest(order, timeline);
+	}
+
+	private void markSent(Long outboxId) {
+		transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.findById(outboxId).ifPresent(email -> {
+			email.setStatus(OutboxStatus.SENT);
+			email.setAttempts(email.getAttempts() + 1);
+			email.setDateSent(LocalDateTime.now());
+			email.setLastError(null);
+		}));
+		meterRegistry.counter("mikuexpress.email.outbox.sent", "result", "sent").increment();
+	}
+
+	private void markFailed(Long outboxId, Exception error) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.findById(outboxId).ifPresent(email -> {
+				int attempts = email.getAttempts() + 1;
+				email.setAttempts(attempts);
+				email.setLastError(truncate(error.getMessage()));
+				
+				if (attempts >= maxAttempts) {
+					email.setStatus(OutboxStatus.DEAD);
+					log.error("E-mail {} do pedido {} descartado após {} tentativas", email.getType(), email.getOrderId(), attempts, error);
+					meterRegistry.counter("mikuexpress.email.outbox.sent", "result", "dead").increment();
+				} else {
+					long delayMs = backoffMs << Math.min(attempts - 1, 16);
+					if (email.getType() == EmailType.STATUS_DIGEST) {
+						// Só pode haver um resumo pendente por pedido. Este começa antes e cobre
+						// as atualizações do resumo criado durante o envio, que é descartado.
+						emailOutboxRepository.deleteOtherPendingDigests(email.getOrderId(), email.getId());
+					}
+					email.setStatus(OutboxStatus.PENDING);
+					email.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delayMs)));
+					log.warn("Falha ao enviar e-mail {} do pedido {} (tentativa {}), nova tentativa em {} ms",
+							email.getType(), email.getOrderId(), attempts, delayMs);
+					meterRegistry.counter("mikuexpress.email.outbox.sent", "result", "retry").increment();
+				}
+			}));
+		} catch (Exception e) {
+			log.error("Erro ao registrar falha da mensagem {} da caixa de saída", outboxId, e);
+		}
+	}
+
+	private static String truncate(String message) {
+		if (message == null) {
+			return null;
+		}
+		return message.length() > 1000 ? message.substring(0, 1000) : message;
+	}
+}
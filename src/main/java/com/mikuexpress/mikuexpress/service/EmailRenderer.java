@@ -0,0 +1,109 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renderiza o HTML dos e-mails de notificação.
+ * 
+ * Os templates Thymeleaf ficam em cache já processados (spring.thymeleaf.cache=true) e
+ * a logo é lida do classpath uma única vez na inicialização: cada e-mail apenas
+ * reaproveita os mesmos bytes, sem abrir o arquivo novamente.
+ */
+@Component
+@Slf4j
+public class EmailRenderer {
+
+	public static final String LOGO_CID = "logoMikuExpress";
+	public static final String LOGO_CONTENT_TYPE = "image/png";
+	private static final String LOGO_PATH = "imagens/logo.png";
+	
+	private final SpringTemplateEngine templateEngine;
+	private final ByteArrayResource logo;
+
+	public EmailRenderer(SpringTemplateEngine templateEngine) throws IOException {
+		this.templateEngine = templateEngine;
+		this.logo = new ByteArrayResource(new ClassPathResource(LOGO_PATH).getContentAsByteArray(), LOGO_PATH);
+		log.info("Logo dos e-mails carregada em memória ({} bytes)", logo.contentLength());
+	}
+	
+	/**
+	 * Logo dos e-mails, para ser anexada inline com o CID {@link #LOGO_CID}.
+	 * 
+	 * O mesmo objeto pode ser usado por várias mensagens ao mesmo tempo: cada leitura
+	 * abre um novo stream sobre os bytes em memória.
+	 * 
+	 * @return Bytes da logo
+	 */
+	public InputStreamSource logo() {
+		return logo;
+	}
+	
+	/**
+	 * Renderiza o template "pedido-criado".
+	 * 
+	 * @param order Pedido criado
+	 * @return HTML do e-mail
+	 */
+	public String renderOrderCreated(Order order) {
+		String statusTexto = "Pedido criado!";
+		if (order.getStatusUpdates() != null 
+				&& !order.getStatusUpdates().isEmpty() 
+				&& order.getStatusUpdates().get(0) != null) {
+			statusTexto = order.getStatusUpdates().get(0).getStatus();
+		}
+		
+		Context context = new Context();
+		context.setVariable("nomeCliente", order.getCustomerName());
+		context.setVariable("codigoRastreio", order.getTrackingCode());
+		context.setVariable("statusInicial", statusTexto);
+		context.setVariable("logoCid", LOGO_CID);
+		return templateEngine.process("pedido-criado", context);
+	}
+	
+	/**
+	 * Renderiza o template "atualizacao-status".
+	 * 
+	 * @param order Pedido que teve o status atualizado
+	 * @param statusUpdate Atualização de status
+	 * @return HTML do e-mail
+	 */
+	public String renderStatusUpdate(Order order, StatusUpdate statusUpdate) {
+		Context context = new Context();
+		context.setVariable("nomeCliente", order.getCustomerName());
+		context.setVariable("codigoRastreio", order.getTrackingCode());
+		context.setVariable("novoStatus", statusUpdate.getStatus());
+		context.setVariable("origem", statusUpdate.getSource());
+		context.setVariable("destino", statusUpdate.getDestination());
+		context.setVariable("logoCid", LOGO_CID);
+		return templateEngine.process("atualizacao-status", context);
+	}
+	
+	/**
+	 * Renderiza o template "resumo-status", com a linha do tempo de várias atualizações.
+	 * 
+	 * @param order Pedido que teve o status atualizado
+	 * @param statusUpdates Atualizações do resumo, da mais antiga para a mais recente
+	 * @return HTML do e-mail
+	 */
+	public String renderStatusDigest(Order order, List<StatusUpdate> statusUpdates) {
+		Context context = new Context();
+		context.setVariable("nomeCliente", order.getCustomerName());
+		context.setVariable("codigoRastreio", order.getTrackingCode());
+		context.setVariable("atualizacoes", statusUpdates);
+		context.setVariable("logoCid", LOGO_CID);
+		return templateEngine.process("resumo-status", context);
+	}
+}
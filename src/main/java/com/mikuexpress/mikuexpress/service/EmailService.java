@@ -1,11 +1,16 @@
 package com.mikuexpress.mikuexpress.service;
 
-import org.springframework.core.io.ClassPathResource;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import com.mikuexpress.mikuexpress.entity.Order;
 import com.mikuexpress.mikuexpress.entity.StatusUpdate;
@@ -21,13 +26,13 @@ import lombok.extern.slf4j.Slf4j;
 public class EmailService {
 
 	private final JavaMailSender mailSender;
-	private final SpringTemplateEngine templateEngine;
+	private final EmailRenderer emailRenderer;
 	
-	private static final String LOGO_CID = "logoMikuExpress";
-    private static final String LOGO_PATH = "imagens/logo.png";
+	@Value("${mikuexpress.email.smtp.max-messages-per-connection}")
+	private int maxMessagesPerConnection;
 	
 	/**
-	 * Envia e-mail de notificação ao cliente quando um pedido é criado.
+	 * Monta (sem enviar) o e-mail de criação de pedido.
 	 * 
 	 * O e-mail contém:
 	 * - Mensagem de boas-vindas personalizada com o nome do cliente
@@ -35,57 +40,35 @@ public class EmailService {
 	 * - Status inicial do pedido
 	 * 
 	 * @param order Pedido criado para o qual o e-mail será enviado
-	 * @throws RuntimeException se houver falha ao enviar o e-mail
+	 * @return MimeMessage pronta para envio, individual ou em lote ({@link #sendBatch(List)})
+	 * @throws RuntimeException se houver falha ao montar o e-mail
 	 */
-	public void sendEmailCreate(Order order) {
+	public MimeMessage buildEmailCreate(Order order) {
 		try {
-			
-			//Contexto do Thymeleaf
-			Context context = new Context();
-			context.setVariable("nomeCliente", order.getCustomerName());
-			context.setVariable("codigoRastreio", order.getTrackingCode());
-			context.setVariable("logoCid", LOGO_CID);
-			
-			String statusTexto = "Pedido criado!";
-
-			if (order.getStatusUpdates() != null 
-					&& !order.getStatusUpdates().isEmpty() 
-					&& order.getStatusUpdates().get(0) != null) {
-				statusTexto = order.getStatusUpdates().get(0).getStatus();
-			}
-			context.setVariable("statusInicial", statusTexto);;
-
-			//Processar o template HTML
-			String htmlContent = templateEngine.process("pedido-criado", context);
-			
-			//Enviar Email
-			sendHtmlEmail(order.getCustomerEmail(), "Miku Express: Pedido Criado!", htmlContent, LOGO_PATH, LOGO_CID);
-			
-			log.info("E-mail de criação de pedido enviado para {}", order.getCustomerEmail());
+			String htmlContent = emailRenderer.renderOrderCreated(order);
+			return buildHtmlEmail(order.getCustomerEmail(), "Miku Express: Pedido Criado!", htmlContent);
 		} catch (Exception e) {
-			log.error("Erro ao enviar e-mail de criação para {}", order.getCustomerEmail(), e);
-			throw new RuntimeException("Falha ao enviar e-mail: " + e.getMessage(), e);
+			log.error("Erro ao montar e-mail de criação para {}", order.getCustomerEmail(), e);
+			throw new RuntimeException("Falha ao montar e-mail: " + e.getMessage(), e);
 		}
 	}
 	
-	private void sendHtmlEmail(String to, String subject, 
-			String htmlContent, String resourcePath, String resourceCid) throws MessagingException{
-		//MimeMessage para envio do html
+	private MimeMessage buildHtmlEmail(String to, String subject, String htmlContent) throws MessagingException{
+		//MimeMessage para envio do html (multipart/related: apenas o HTML e a logo inline)
 		MimeMessage mimeMessage = mailSender.createMimeMessage();
-		MimeMessageHelper helper = new MimeMessageHelper(mimeMessage,true,"UTF-8");
+		MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, MimeMessageHelper.MULTIPART_MODE_RELATED, "UTF-8");
 		
 		helper.setTo(to);
 		helper.setSubject(subject);
 		helper.setText(htmlContent, true);
 		
-		//Anexa a imagem
-		ClassPathResource resource = new ClassPathResource(resourcePath);
-		helper.addInline(resourceCid, resource);
-		mailSender.send(mimeMessage);
+		//Anexa a imagem (bytes já carregados em memória pelo EmailRenderer)
+		helper.addInline(EmailRenderer.LOGO_CID, emailRenderer.logo(), EmailRenderer.LOGO_CONTENT_TYPE);
+		return mimeMessage;
 	}
 
 	/**
-	 * Envia e-mail de notificação ao cliente quando há uma atualização de status no pedido.
+	 * Monta (sem enviar) o e-mail de atualização de status.
 	 * 
 	 * O e-mail contém:
 	 * - Mensagem personalizada com o nome do cliente
@@ -95,29 +78,85 @@ public class EmailService {
 	 * 
 	 * @param order Pedido que teve o status atualizado
 	 * @param statusUpdate Objeto contendo os dados da atualização de status
-	 * @throws RuntimeException se houver falha ao enviar o e-mail
+	 * @return MimeMessage pronta para envio, individual ou em lote ({@link #sendBatch(List)})
+	 * @throws RuntimeException se houver falha ao montar o e-mail
 	 */
-	public void sendEmailUpdate(Order order, StatusUpdate statusUpdate) {
+	public MimeMessage buildEmailUpdate(Order order, StatusUpdate statusUpdate) {
 		try {
-			
-			Context context = new Context();
-			context.setVariable("nomeCliente", order.getCustomerName());
-			context.setVariable("codigoRastreio", order.getTrackingCode());
-			context.setVariable("novoStatus", statusUpdate.getStatus());
-			context.setVariable("origem", statusUpdate.getSource());
-			context.setVariable("destino", statusUpdate.getDestination());
-			
-			context.setVariable("logoCid", LOGO_CID);
-			
-			String htmlContent = templateEngine.process("atualizacao-status", context);
-			
-			sendHtmlEmail(order.getCustomerEmail(), "Miku Express: Atualização do Pedido " + order.getTrackingCode()
-			, htmlContent,LOGO_PATH, LOGO_CID);
-			
-			log.info("E-mail de atualização enviado para {}", order.getCustomerEmail());
+			String htmlContent = emailRenderer.renderStatusUpdate(order, statusUpdate);
+			return buildHtmlEmail(order.getCustomerEmail(), "Miku Express: Atualização do Pedido " + order.getTrackingCode(), htmlContent);
+		} catch (Exception e) {
+			log.error("Erro ao montar e-mail de atualização para {}", order.getCustomerEmail(), e);
+			throw new RuntimeException("Falha ao montar e-mail: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Monta (sem enviar) o e-mail de resumo com várias atualizações de status do mesmo pedido.
+	 * 
+	 * Se houver apenas uma atualização, usa o e-mail de atualização normal.
+	 * 
+	 * @param order Pedido que teve o status atualizado
+	 * @param statusUpdates Atualizações do resumo, da mais antiga para a mais recente
+	 * @return MimeMessage pronta para envio, individual ou em lote ({@link #sendBatch(List)})
+	 * @throws RuntimeException se houver falha ao montar o e-mail
+	 */
+	public MimeMessage buildEmailDigest(Order order, List<StatusUpdate> statusUpdates) {
+		if (statusUpdates.size() == 1) {
+			return buildEmailUpdate(order, statusUpdates.get(0));
+		}
+		try {
+			String htmlContent = emailRenderer.renderStatusDigest(order, statusUpdates);
+			return buildHtmlEmail(order.getCustomerEmail(), "Miku Express: " + statusUpdates.size() + " Atualizações do Pedido " + order.getTrackingCode(), htmlContent);
 		} catch (Exception e) {
-			log.error("Erro ao enviar e-mail de atualização para {}", order.getCustomerEmail(), e);
-			throw new RuntimeException("Falha ao enviar e-mail: " + e.getMessage(), e);
+			log.error("Erro ao montar e-mail de resumo para {}", order.getCustomerEmail(), e);
+			throw new RuntimeException("Falha ao montar e-mail: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Envia várias mensagens reaproveitando a conexão SMTP.
+	 * 
+	 * As mensagens são divididas em grupos de até mikuexpress.email.smtp.max-messages-per-connection;
+	 * cada grupo é enviado por uma única conexão (um único handshake STARTTLS/AUTH).
+	 * Se a conexão cair no meio de um grupo, as mensagens que falharam são reenviadas
+	 * uma vez por uma nova conexão antes de serem consideradas com erro.
+	 * 
+	 * @param messages Mensagens montadas por {@link #buildEmailCreate(Order)} ou {@link #buildEmailUpdate(Order, StatusUpdate)}
+	 * @return Mensagens que não puderam ser enviadas, com o erro de cada uma (vazio se todas foram enviadas)
+	 */
+	public Map<MimeMessage, Exception> sendBatch(List<MimeMessage> messages) {
+		Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+		
+		for (int from = 0; from < messages.size(); from += maxMessagesPerConnection) {
+			List<MimeMessage> chunk = messages.subList(from, Math.min(from + maxMessagesPerConnection, messages.size()));
+			
+			Map<MimeMessage, Exception> chunkFailures = sendOverOneConnection(chunk);
+			if (!chunkFailures.isEmpty()) {
+				log.warn("Falha ao enviar {} de {} e-mails, reenviando por uma nova conexão", chunkFailures.size(), chunk.size());
+				chunkFailures = sendOverOneConnection(new ArrayList<>(chunkFailures.keySet()));
+			}
+			failures.putAll(chunkFailures);
+		}
+		
+		log.info("Lote de e-mails enviado: {} enviados, {} com erro", messages.size() - failures.size(), failures.size());
+		return failures;
+	}
+	
+	private Map<MimeMessage, Exception> sendOverOneConnection(List<MimeMessage> messages) {
+		Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+		try {
+			mailSender.send(messages.toArray(MimeMessage[]::new));
+		} catch (MailSendException e) {
+			// Falhas por mensagem: as demais foram enviadas pela mesma conexão
+			e.getFailedMessages().forEach((message, error) -> failures.put((MimeMessage) message, error));
+			if (failures.isEmpty()) {
+				messages.forEach(message -> failures.put(message, e));
+			}
+		} catch (MailException e) {
+			// Falha ao conectar ou autenticar: nenhuma mensagem do grupo foi enviada
+			messages.forEach(message -> failures.put(message, e));
 		}
+		return failures;
 	}
 }
@@ -1,12 +1,13 @@
 package com.mikuexpress.mikuexpress.service;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.google.maps.DistanceMatrixApi;
-import com.google.maps.GeoApiContext;
-import com.google.maps.model.DistanceMatrix;
-import com.google.maps.model.TravelMode;
-import com.google.maps.model.Unit;
+import com.mikuexpress.mikuexpress.cache.DistanceCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,47 +17,54 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class GoogleMapsService {
 
-	private final GeoApiContext context;
+	private final DistanceMatrixDispatcher dispatcher;
+	private final DistanceCache distanceCache;
 	
+	@Value("${google.maps.batch.timeout-ms}")
+	private long timeoutMs;
 	
 	/**
 	 * Calcula a distância rodoviária em quilômetros entre dois endereços usando a API Google Maps Distance Matrix.
 	 * 
 	 * Este método:
-	 * 1. Faz uma requisição para a API Google Maps Distance Matrix
+	 * 1. Faz uma requisição para a API Google Maps Distance Matrix (agrupada com outras
+	 *    consultas pendentes pelo {@link DistanceMatrixDispatcher})
 	 * 2. Usa modo de viagem DRIVING (veículo)
 	 * 3. Retorna a distância em quilômetros (converte de metros)
 	 * 
 	 * Os endereços devem estar no formato: "Cidade, Estado, BR" (ex: "São Paulo, SP, BR")
 	 * 
+	 * A distância de cada par de cidades é consultada no Google apenas uma vez;
+	 * as consultas seguintes são atendidas pelo {@link DistanceCache}, que também agrupa
+	 * consultas simultâneas ao mesmo par.
+	 * 
 	 * @param source Endereço de origem no formato "Cidade, Estado, BR"
 	 * @param destination Endereço de destino no formato "Cidade, Estado, BR"
 	 * @return Distância em quilômetros (Double) entre os dois endereços
 	 * @throws RuntimeException se houver erro na chamada à API ou se não for possível calcular a distância
 	 */
 	public Double getDistanceInKM(String source, String destination) {
+		return distanceCache.get(source, destination, this::fetchDistanceInKM);
+	}
+	
+	private Double fetchDistanceInKM(String source, String destination) {
 		try {
-			log.info("Consultando Google Distance Matrix API: {} -> {}", source, destination);
+			Double distanceInKms = dispatcher.submit(source, destination)
+					.get(timeoutMs, TimeUnit.MILLISECONDS);
 			
-			DistanceMatrix matrix = DistanceMatrixApi.newRequest(context)
-					.origins(source)
-					.destinations(destination)
-					.mode(TravelMode.DRIVING)
-					.units(Unit.METRIC)
-					.await();
-			if(matrix.rows.length > 0 && matrix.rows[0].elements.length > 0) {
-				long distanceInMeters = matrix.rows[0].elements[0].distance.inMeters;
-				double distanceInKms = distanceInMeters /1000;
-				
-				log.info("Distancia calculada: {} km", distanceInKms);
-				return distanceInKms;
-			}else {
-				log.warn("Não foi possível calcular a distância para: {} -> {}", source, destination);
-                throw new RuntimeException("Não foi possível calcular a distância. Verifique os endereços.");
+			log.info("Distancia calculada: {} km", distanceInKms);
+			return distanceInKms;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
 			}
-		}catch(Exception e) {
-			log.error("Erro ao chamar API do Google Maps", e);
-			throw new RuntimeException("Erro ao chamar API do Google Maps: " + e.getMessage());
+			throw new RuntimeException("Erro ao chamar API do Google Maps: " + e.getCause().getMessage());
+		} catch (TimeoutException e) {
+			log.error("Tempo limite de {} ms excedido ao consultar Google Maps: {} -> {}", timeoutMs, source, destination);
+			throw new RuntimeException("Tempo limite excedido ao chamar API do Google Maps");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Consulta ao Google Maps interrompida");
 		}
 	}
 }
@@ -0,0 +1,399 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mikuexpress.mikuexpress.dto.CreatePackageDTO;
+import com.mikuexpress.mikuexpress.dto.ImportResultDTO;
+import com.mikuexpress.mikuexpress.dto.ViaCepResponseDTO;
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.repository.OrderRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importação em massa de pedidos a partir de um corpo CSV ou NDJSON.
+ * 
+ * O processamento é um pipeline em que as etapas rodam ao mesmo tempo:
+ * 1. Leitura e parse das linhas (uma thread virtual)
+ * 2. Busca dos CEPs, cálculo da distância e do preço (uma thread virtual por linha,
+ *    no máximo mikuexpress.import.max-in-flight linhas em andamento)
+ * 3. Inserção no banco em lotes de mikuexpress.import.batch-size pedidos por transação
+ * 4. Escrita do resultado de cada linha (thread da requisição)
+ * 
+ * As etapas são ligadas por filas limitadas, então o uso de memória não depende do
+ * tamanho do arquivo: se uma etapa atrasa, as anteriores esperam. Se o cliente
+ * desconectar, a importação é cancelada: as etapas param de ler e gravar e nenhuma
+ * fica bloqueada nas filas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderImportService {
+
+	private static final List<String> CSV_COLUMNS = List.of("source", "destination", "customerEmail", "customerName", "weightInKg");
+	
+	// Marcadores de fim de fluxo entre as etapas
+	private static final PricedRow END_OF_ROWS = new PricedRow(-1, null, null);
+	private static final ImportResultDTO END_OF_RESULTS = ImportResultDTO.error(-1, null);
+	
+	private final OrderService orderService;
+	private final ViaCepService viaCepService;
+	private final GoogleMapsService googleMapsService;
+	private final OrderRepository orderRepository;
+	private final EmailOutboxService emailOutboxService;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	
+	@Qualifier("lookupExecutor")
+	private final ExecutorService lookupExecutor;
+	
+	@Value("${mikuexpress.import.batch-size}")
+	private int batchSize;
+	
+	@Value("${mikuexpress.import.max-in-flight}")
+	private int maxInFlight;
+
+	/**
+	 * Importa os pedidos do corpo da requisição e escreve o resultado de cada linha
+	 * como NDJSON ({@link ImportResultDTO}) na saída, na ordem em que ficam prontos.
+	 * 
+	 * Erros de uma linha (parse, CEP inválido, distância, banco) não interrompem as demais.
+	 * 
+	 * @param body Corpo da requisição com os pedidos
+	 * @param csv true se o corpo for CSV com cabeçalho, false se for NDJSON
+	 * @param output Saída onde os resultados são escritos
+	 * @throws IOException se não for possível escrever na saída
+	 */
+	public void importOrders(InputStream body, boolean csv, OutputStream output) throws IOException {
+		BlockingQueue<PricedRow> priced = new ArrayBlockingQueue<>(batchSize * 2);
+		BlockingQueue<ImportResultDTO> results = new ArrayBlockingQueue<>(batchSize * 4);
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		AtomicBoolean cancelled = new AtomicBoolean();
+		
+		Future<?> reader = lookupExecutor.submit(() -> readRows(body, csv, inFlight, priced, results, cancelled));
+		lookupExecutor.submit(() -> writeBatches(priced, results, cancelled));
+		
+		long created = 0;
+		long failed = 0;
+		boolean finished = false;
+		try {
+			while (true) {
+				ImportResultDTO result = results.take();
+				if (result == END_OF_RESULTS) {
+					finished = true;
+					break;
+				}
+				if ("CREATED".equals(result.status())) {
+					created++;
+				} else {
+					failed++;
+				}
+				output.write(objectMapper.writeValueAsBytes(result));
+				output.write('\n');
+				if (results.isEmpty()) {
+					output.flush();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Importação interrompida", e);
+		} finally {
+			if (!finished) {
+				// Cliente desconectou ou a escrita falhou: encerra as etapas em vez de deixá-las
+				// bloqueadas nas filas. A gravação não é interrompida para não cortar uma
+				// transação no meio; ela para no próximo lote ao ver o cancelamento.
+				cancelled.set(true);
+				reader.cancel(true);
+				priced.clear();
+				results.clear();
+				log.warn("Importação cancelada após {} pedidos criados e {} linhas com erro", created, failed);
+			}
+			meterRegistry.counter("mikuexpress.import.rows", "result", "created").increment(created);
+			meterRegistry.counter("mikuexpress.import.rows", "result", "error").increment(failed);
+			log.info("Importação finalizada: {} pedidos criados, {} linhas com erro", created, failed);
+		}
+		output.flush();
+	}
+
+	// Etapa 1: lê as linhas e dispara o cálculo de cada uma
+	private void readRows(InputStream body, boolean csv, Semaphore inFlight,
+			BlockingQueue<PricedRow> priced, BlockingQueue<ImportResultDTO> results, AtomicBoolean cancelled) {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+			Map<String, Integer> header = null;
+			String line;
+			long lineNumber = 0;
+			
+			while (!cancelled.get() && (line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank()) {
+					continue;
+				}
+				if (csv && header == null) {
+					header = parseHeader(line);
+					continue;
+				}
+				
+				long currentLine = lineNumber;
+				CreatePackageDTO dto;
+				try {
+					dto = csv ? parseCsv(line, header) : objectMapper.readValue(line, CreatePackageDTO.class);
+					validate(dto);
+				} catch (Exception e) {
+					put(results, ImportResultDTO.error(currentLine, "Linha inválida: " + e.getMessage()), cancelled);
+					continue;
+				}
+				
+				if (!acquire(inFlight, cancelled)) {
+					break;
+				}
+				lookupExecutor.execute(() -> {
+					try {
+						put(priced, new PricedRow(currentLine, price(dto), null), cancelled);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} catch (Exception e) {
+						putQuietly(priced, new PricedRow(currentLine, null, e.getMessage()), cancelled);
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+		} catch (Exception e) {
+			if (!cancelled.get()) {
+				log.error("Erro ao ler o arquivo de importação", e);
+				putQuietly(results, ImportResultDTO.error(-1, "Erro ao ler o arquivo: " + e.getMessage()), cancelled);
+			}
+		} finally {
+			// Espera todas as linhas em andamento antes de encerrar a etapa de gravação.
+			// Após um cancelamento as linhas em andamento não bloqueiam nas filas, então terminam.
+			inFlight.acquireUninterruptibly(maxInFlight);
+			putQuietly(priced, END_OF_ROWS, cancelled);
+		}
+	}
+
+	// Etapa 2: CEPs, distância e preço de uma linha
+	private Order price(CreatePackageDTO dto) {
+		ViaCepResponseDTO source = viaCepService.getAddressByCep(dto.source());
+		ViaCepResponseDTO destination = viaCepService.getAddressByCep(dto.destination());
+		orderService.validateAddresses(source, destination);
+		
+		Double distance = googleMapsService.getDistanceInKM(source.getAddressForGoogle(), destination.getAddressForGoogle());
+		return orderService.buildOrder(dto, source, destination, distance);
+	}
+
+	// Etapa 3: grava os pedidos calculados em lotes
+	private void writeBatches(BlockingQueue<PricedRow> priced, BlockingQueue<ImportResultDTO> results, AtomicBoolean cancelled) {
+		List<PricedRow> batch = new ArrayList<>(batchSize);
+		try {
+			while (!cancelled.get()) {
+				PricedRow row = priced.poll(50, TimeUnit.MILLISECONDS);
+				
+				if (row == END_OF_ROWS) {
+					insertBatch(batch, results, cancelled);
+					break;
+				}
+				if (row != null && row.order() == null) {
+					put(results, ImportResultDTO.error(row.line(), row.error()), cancelled);
+					continue;
+				}
+				if (row != null) {
+					batch.add(row);
+				}
+				if (batch.size() >= batchSize || (row == null && !batch.isEmpty())) {
+					insertBatch(batch, results, cancelled);
+					batch.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			log.error("Erro na gravação dos pedidos importados", e);
+			discardRemaining(priced, results, "Importação interrompida: " + e.getMessage(), cancelled);
+		} finally {
+			putQuietly(results, END_OF_RESULTS, cancelled);
+		}
+	}
+
+	// Continua consumindo a fila para não bloquear as etapas anteriores, marcando as linhas com erro
+	private void discardRemaining(BlockingQueue<PricedRow> priced, BlockingQueue<ImportResultDTO> results,
+			String message, AtomicBoolean cancelled) {
+		try {
+			while (!cancelled.get()) {
+				PricedRow row = priced.poll(50, TimeUnit.MILLISECONDS);
+				if (row == END_OF_ROWS) {
+					break;
+				}
+				if (row != null) {
+					put(results, ImportResultDTO.error(row.line(), message), cancelled);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void insertBatch(List<PricedRow> batch, BlockingQueue<ImportResultDTO> results, AtomicBoolean cancelled)
+			throws InterruptedException {
+		if (batch.isEmpty() || cancelled.get()) {
+			return;
+		}
+		
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				List<Order> saved = orderRepository.saveAll(batch.stream().map(PricedRow::order).toList());
+				saved.forEach(emailOutboxService::enqueueOrderCreated);
+			});
+			for (PricedRow row : batch) {
+				put(results, ImportResultDTO.created(row.line(), row.order().getTrackingCode()), cancelled);
+			}
+		} catch (InterruptedException e) {
+			throw e;
+		} catch (Exception batchError) {
+			// Se o lote falhar, grava linha a linha para identificar quais linhas têm erro
+			log.warn("Falha ao gravar lote de {} pedidos, gravando individualmente", batch.size(), batchError);
+			for (PricedRow row : batch) {
+				if (cancelled.get()) {
+					return;
+				}
+				row.order().setId(null);
+				row.order().getStatusUpdates().forEach(statusUpdate -> statusUpdate.setId(null));
+				try {
+					transactionTemplate.executeWithoutResult(status ->
+							emailOutboxService.enqueueOrderCreated(orderRepository.save(row.order())));
+					put(results, ImportResultDTO.created(row.line(), row.order().getTrackingCode()), cancelled);
+				} catch (InterruptedException e) {
+					throw e;
+				} catch (Exception e) {
+					put(results, ImportResultDTO.error(row.line(), "Erro ao salvar o pedido: " + e.getMessage()), cancelled);
+				}
+			}
+		}
+	}
+
+	private Map<String, Integer> parseHeader(String line) {
+		List<String> names = splitCsv(line);
+		Map<String, Integer> header = new HashMap<>();
+		for (int i = 0; i < names.size(); i++) {
+			header.put(names.get(i).trim(), i);
+		}
+		for (String column : CSV_COLUMNS) {
+			if (!header.containsKey(column)) {
+				throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + column);
+			}
+		}
+		return header;
+	}
+
+	private CreatePackageDTO parseCsv(String line, Map<String, Integer> header) {
+		List<String> values = splitCsv(line);
+		if (values.size() < header.size()) {
+			throw new IllegalArgumentException("esperadas " + header.size() + " colunas, encontradas " + values.size());
+		}
+		String weight = values.get(header.get("weightInKg")).trim();
+		return new CreatePackageDTO(
+				values.get(header.get("source")).trim(),
+				values.get(header.get("destination")).trim(),
+				values.get(header.get("customerEmail")).trim(),
+				values.get(header.get("customerName")).trim(),
+				weight.isEmpty() ? null : Double.valueOf(weight));
+	}
+
+	// Separa uma linha CSV respeitando campos entre aspas ("a, b" e aspas escapadas "")
+	private static List<String> splitCsv(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					current.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(current.toString());
+				current.setLength(0);
+			} else {
+				current.append(c);
+			}
+		}
+		values.add(current.toString());
+		return values;
+	}
+
+	private static void validate(CreatePackageDTO dto) {
+		if (dto.source() == null || dto.source().isBlank()
+				|| dto.destination() == null || dto.destination().isBlank()) {
+			throw new IllegalArgumentException("CEP de origem e destino são obrigatórios");
+		}
+		if (dto.customerEmail() == null || dto.customerEmail().isBlank()
+				|| dto.customerName() == null || dto.customerName().isBlank()) {
+			throw new IllegalArgumentException("Nome e e-mail do cliente são obrigatórios");
+		}
+		if (dto.weightInKg() == null || dto.weightInKg() <= 0) {
+			throw new IllegalArgumentException("Peso deve ser maior que zero");
+		}
+	}
+
+	// Bloqueia enquanto a fila estiver cheia, mas desiste se a importação for cancelada
+	private static <T> boolean put(BlockingQueue<T> queue, T item, AtomicBoolean cancelled) throws InterruptedException {
+		while (!cancelled.get()) {
+			if (queue.offer(item, 50, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static <T> void putQuietly(BlockingQueue<T> queue, T item, AtomicBoolean cancelled) {
+		try {
+			put(queue, item, cancelled);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static boolean acquire(Semaphore inFlight, AtomicBoolean cancelled) throws InterruptedException {
+		while (!cancelled.get()) {
+			if (inFlight.tryAcquire(50, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private record PricedRow(long line, Order order, String error) {
+	}
+}
@@ -1,24 +1,51 @@
 package com.mikuexpress.mikuexpress.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.mikuexpress.mikuexpress.cache.TrackingViewCache;
 import com.mikuexpress.mikuexpress.dto.CreatePackageDTO;
 import com.mikuexpress.mikuexpress.dto.CreatedPackageDTO;
+import com.mikuexpress.mikuexpress.dto.OrderFilterDTO;
+import com.mikuexpress.mikuexpress.dto.OrderPageDTO;
+import com.mikuexpress.mikuexpress.dto.OrderSummaryDTO;
+import com.mikuexpress.mikuexpress.dto.OrderVersionDTO;
 import com.mikuexpress.mikuexpress.dto.StatusUpdateDTO;
 import com.mikuexpress.mikuexpress.dto.StatusUpdatedDTO;
+import com.mikuexpress.mikuexpress.dto.TrackingViewDTO;
 import com.mikuexpress.mikuexpress.dto.ViaCepResponseDTO;
 import com.mikuexpress.mikuexpress.entity.Order;
 import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+import com.mikuexpress.mikuexpress.event.OrderChangedEvent;
 import com.mikuexpress.mikuexpress.mappers.OrderMapper;
 import com.mikuexpress.mikuexpress.mappers.StatusUpdateMapper;
+import com.mikuexpress.mikuexpress.repository.OrderListingRepository;
 import com.mikuexpress.mikuexpress.repository.OrderRepository;
+import com.mikuexpress.mikuexpress.repository.StatusUpdateRepository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,8 +58,24 @@ public class OrderService {
 	private final ViaCepService viaCepService;
 	private final GoogleMapsService googleMapsService;
 	private final OrderMapper orderMapper;
-	private final EmailService emailService;
+	private final EmailOutboxService emailOutboxService;
+	private final StatusUpdateRepository statusUpdateRepository;
 	private final StatusUpdateMapper statusUpdateMapper;
+	private final MeterRegistry meterRegistry;
+	private final TrackingCodeGenerator trackingCodeGenerator;
+	private final TrackingViewCache trackingViewCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final OrderListingRepository orderListingRepository;
+	private final ObjectMapper objectMapper;
+	
+	@Qualifier("lookupExecutor")
+	private final ExecutorService lookupExecutor;
+	
+	@Value("${mikuexpress.lookup.timeout-ms}")
+	private long lookupTimeoutMs;
+	
+	@Value("${mikuexpress.admin.orders.max-page-size}")
+	private int maxPageSize;
 	
 	/**
 	 * Cria um novo pedido/pacote no sistema.
@@ -44,7 +87,7 @@ public class OrderService {
 	 * 4. Gera um código de rastreio único
 	 * 5. Cria o status inicial do pedido
 	 * 6. Salva o pedido no banco de dados
-	 * 7. Envia e-mail de notificação ao cliente
+	 * 7. Registra o e-mail de notificação ao cliente na caixa de saída (enviado pelo EmailOutboxWorker)
 	 * 
 	 * @param dto DTO contendo os dados do pedido (CEPs, dados do cliente, peso)
 	 * @return CreatedPackageDTO com os dados do pedido criado incluindo preço e código de rastreio
@@ -52,45 +95,102 @@ public class OrderService {
 	 */
 	@Transactional
 	public CreatedPackageDTO createPackage(CreatePackageDTO dto) {
-		Order newOrder = orderMapper.toEntity(dto);
-		
 		log.info("Iniciando processo de criação de pacote para o cliente: {}", dto.customerEmail());
+		long startedAt = System.nanoTime();
 
         // --- 2. CHAMAR API VIA CEP ---
         // (Assumindo que dto.getOrigin() e dto.getDestination() são os CEPs)
+        // Origem e destino são consultados ao mesmo tempo, cada um com seu prazo
         log.debug("Buscando endereços no ViaCEP...");
-		ViaCepResponseDTO source = viaCepService.getAddressByCep(newOrder.getSource());
-		ViaCepResponseDTO destination = viaCepService.getAddressByCep(newOrder.getDestination());
+		CompletableFuture<ViaCepResponseDTO> sourceLookup = lookupAsync(() -> viaCepService.getAddressByCep(dto.source()));
+		CompletableFuture<ViaCepResponseDTO> destinationLookup = lookupAsync(() -> viaCepService.getAddressByCep(dto.destination()));
+		awaitAll(sourceLookup, destinationLookup);
+		ViaCepResponseDTO source = sourceLookup.join();
+		ViaCepResponseDTO destination = destinationLookup.join();
+		long cepDoneAt = recordStage("cep", startedAt);
 		
-		// Validar se os CEPs foram encontrados
-		if (!source.isValid() || !destination.isValid()) {
-			log.error("CEP inválido: origem válido={}, destino válido={}", source.isValid(), destination.isValid());
-			throw new RuntimeException("CEP inválido. Verifique os CEPs informados.");
-		}
+		validateAddresses(source, destination);
 		
 		// --- 3. CHAMAR API GOOGLE MAPS ---
 		log.debug("Calculando distância no Google Maps: {} -> {}", source.getAddressForGoogle(), destination.getAddressForGoogle());
 		Double distance = googleMapsService.getDistanceInKM(source.getAddressForGoogle(),destination.getAddressForGoogle());
+		long distanceDoneAt = recordStage("distance", cepDoneAt);
+		
+		// --- 4. CALCULAR O PREÇO E CRIAR O STATUS INICIAL ---
+		Order newOrder = buildOrder(dto, source, destination, distance);
+		
+		//--- 6. SALVAR NO BANCO DE DADOS ---
+		orderRepository.save(newOrder);
+		long persistDoneAt = recordStage("persist", distanceDoneAt);
+	
+        log.info("Pacote salvo com sucesso. Código: {}", newOrder.getTrackingCode());
+		
+     // --- 7. REGISTRAR E-MAIL DE NOTIFICAÇÃO ---
+        // Gravado na mesma transação do pedido; o envio acontece em segundo plano
+        emailOutboxService.enqueueOrderCreated(newOrder);
+        long outboxDoneAt = recordStage("outbox", persistDoneAt);
+        recordStage("total", startedAt);
+        
+        log.info("Tempos da criação do pacote {}: cep={}ms, distancia={}ms, banco={}ms, outbox={}ms, total={}ms",
+        		newOrder.getTrackingCode(),
+        		TimeUnit.NANOSECONDS.toMillis(cepDoneAt - startedAt),
+        		TimeUnit.NANOSECONDS.toMillis(distanceDoneAt - cepDoneAt),
+        		TimeUnit.NANOSECONDS.toMillis(persistDoneAt - distanceDoneAt),
+        		TimeUnit.NANOSECONDS.toMillis(outboxDoneAt - persistDoneAt),
+        		TimeUnit.NANOSECONDS.toMillis(outboxDoneAt - startedAt));
 		
+		return orderMapper.toCreatedDTO(newOrder);
+	}
+	
+	/**
+	 * Valida se os dois CEPs foram encontrados no ViaCEP.
+	 * 
+	 * @param source Endereço de origem retornado pelo ViaCEP
+	 * @param destination Endereço de destino retornado pelo ViaCEP
+	 * @throws RuntimeException se algum dos CEPs for inválido
+	 */
+	public void validateAddresses(ViaCepResponseDTO source, ViaCepResponseDTO destination) {
+		if (source == null || destination == null || !source.isValid() || !destination.isValid()) {
+			log.error("CEP inválido: origem válido={}, destino válido={}",
+					source != null && source.isValid(), destination != null && destination.isValid());
+			throw new RuntimeException("CEP inválido. Verifique os CEPs informados.");
+		}
+	}
+	
+	/**
+	 * Monta um novo pedido (ainda não salvo) a partir dos endereços e da distância já resolvidos.
+	 * 
+	 * Este método:
+	 * 1. Valida a distância calculada
+	 * 2. Calcula o preço do frete baseado na distância e peso
+	 * 3. Gera o código de rastreio
+	 * 4. Cria o status inicial do pedido
+	 * 
+	 * @param dto DTO contendo os dados do pedido (CEPs, dados do cliente, peso)
+	 * @param source Endereço de origem retornado pelo ViaCEP
+	 * @param destination Endereço de destino retornado pelo ViaCEP
+	 * @param distance Distância em quilômetros entre origem e destino
+	 * @return Order pronto para ser salvo, com o status inicial
+	 * @throws RuntimeException se a distância for inválida
+	 */
+	public Order buildOrder(CreatePackageDTO dto, ViaCepResponseDTO source, ViaCepResponseDTO destination, Double distance) {
 		// Validar se a distância foi calculada corretamente
 		if (distance == null || distance <= 0) {
 			log.error("Distância inválida calculada: {}", distance);
 			throw new RuntimeException("Não foi possível calcular a distância entre os endereços.");
 		}
 		
-		// --- 4. CALCULAR O PREÇO ---
-		
+		Order newOrder = orderMapper.toEntity(dto);
 		newOrder.setDistance(distance.toString());
 		Double price = (distance * 0.50) + (newOrder.getWeightInKg() *10.50);
 		newOrder.setPrice(price);
 		newOrder.setSource(source.getAddressComplete());
 		newOrder.setDestination(destination.getAddressComplete());
 		newOrder.setDateCreate(LocalDateTime.now());
-		newOrder.setTrackingCode(generateTrackingCode());
+		newOrder.setTrackingCode(trackingCodeGenerator.generate());
 		
 		log.info("Preço final calculado: R$ {} (Distância: {} km, Peso: {} kg, Code: {})", price, distance, dto.weightInKg(), newOrder.getTrackingCode());
 		
-		// --- 5. CRIAR O STATUS INICIAL ---
 		StatusUpdate initStatus = new StatusUpdate();
 		initStatus.setStatus("Pedido criado!");
 		initStatus.setSource(source.getAddressForGoogle());
@@ -100,33 +200,20 @@ public class OrderService {
 		
 		newOrder.setStatusUpdates(new ArrayList<>());
 		newOrder.getStatusUpdates().add(initStatus);
-		
-		//--- 6. SALVAR NO BANCO DE DADOS ---
-		orderRepository.save(newOrder);
-	
-        log.info("Pacote salvo com sucesso. Código: {}", newOrder.getTrackingCode());
-		
-     // --- 7. ENVIAR E-MAIL DE NOTIFICAÇÃO ---
-        try {
-        	        	emailService.sendEmailCreate(newOrder);
-        	log.info("E-mail de notificação enviado para {}", newOrder.getCustomerEmail());
-        } catch (Exception e) {
-            log.error("Falha ao enviar e-mail de notificação para {}", newOrder.getCustomerEmail(), e);
-            // Não interrompe o fluxo se o e-mail falhar
-        }
-		
-		return orderMapper.toCreatedDTO(newOrder);
+		newOrder.setCurrentStatus(initStatus.getStatus());
+		newOrder.setLastUpdated(initStatus.getDateUpdate());
+		return newOrder;
 	}
 	
 	/**
 	 * Adiciona uma nova atualização de status a um pedido existente.
 	 * 
-	 * Este método:
-	 * 1. Busca o pedido pelo ID
-	 * 2. Cria uma nova atualização de status com a data/hora atual
-	 * 3. Associa a atualização ao pedido
-	 * 4. Salva o pedido atualizado no banco de dados
-	 * 5. Envia e-mail de notificação ao cliente sobre a atualização
+	 * Este método não carrega o pedido nem seu histórico, então o custo é o mesmo
+	 * para pedidos com uma ou centenas de atualizações:
+	 * 1. Busca apenas o código de rastreio do pedido (e confirma que ele existe)
+	 * 2. Insere a atualização de status com a data/hora atual, referenciando o pedido pelo ID
+	 * 3. Atualiza o status atual (current_status/last_updated) do pedido em um único UPDATE
+	 * 4. Registra o e-mail de notificação ao cliente na caixa de saída (enviado pelo EmailOutboxWorker)
 	 * 
 	 * @param dto DTO contendo o status, localização de origem e destino
 	 * @param orderId ID do pedido que será atualizado
@@ -135,72 +222,157 @@ public class OrderService {
 	 */
 	@Transactional
 	public StatusUpdatedDTO addStatusUpdate(StatusUpdateDTO dto, Long orderId) {
-		Order order = orderRepository.findById(orderId)
+		return addStatusUpdate(dto, orderId, LocalDateTime.now());
+	}
+	
+	/**
+	 * Adiciona uma atualização de status com a data/hora informada, em vez da atual.
+	 * 
+	 * Usado pela ingestão de leituras, em que a data/hora é a da leitura no centro de
+	 * distribuição: uma leitura mais antiga que chegue depois entra no histórico sem
+	 * sobrescrever o status atual do pedido.
+	 * 
+	 * @param dto DTO contendo o status, localização de origem e destino
+	 * @param orderId ID do pedido que será atualizado
+	 * @param dateUpdate Data/hora da atualização
+	 * @return StatusUpdatedDTO com os dados da atualização incluindo data/hora
+	 * @throws RuntimeException se o pedido não for encontrado
+	 */
+	@Transactional
+	public StatusUpdatedDTO addStatusUpdate(StatusUpdateDTO dto, Long orderId, LocalDateTime dateUpdate) {
+		String trackingCode = orderRepository.findTrackingCodeById(orderId)
 			.orElseThrow(() -> new RuntimeException("Pacote não encontrado com ID: " + orderId));
-		
-		if (order.getStatusUpdates() == null) {
-			order.setStatusUpdates(new ArrayList<>());
-		}
+		Order order = orderRepository.getReferenceById(orderId);
 		
 		StatusUpdate status = statusUpdateMapper.toEntity(dto);
-		status.setDateUpdate(LocalDateTime.now());
+		status.setDateUpdate(dateUpdate);
 		status.setOrder(order);
 		
-				order.getStatusUpdates().add(status);
-		
-		orderRepository.save(order);
-		
-		// Enviar e-mail após salvar com sucesso
-		try {
-        	emailService.sendEmailUpdate(order, status);
-        	log.info("E-mail de notificação enviado para {}", order.getCustomerEmail());
-        } catch (Exception e) {
-            log.error("Falha ao enviar e-mail de notificação para {}", order.getCustomerEmail(), e);
-            // Não interrompe o fluxo se o e-mail falhar
-        }
+		// Salva a atualização diretamente para que ela tenha ID antes de entrar na caixa de saída
+		statusUpdateRepository.save(status);
+		orderRepository.updateCurrentStatus(orderId, status.getStatus(), status.getDateUpdate());
+		emailOutboxService.enqueueStatusUpdate(order, status);
+		eventPublisher.publishEvent(new OrderChangedEvent(orderId, trackingCode));
 		
 		return statusUpdateMapper.toUpdatedDTO(status);
 	}
 	
 	/**
-	 * Consulta um pedido pelo código de rastreio.
+	 * Consulta a visão pública de rastreio de um pedido.
 	 * 
-	 * Busca um pedido no banco de dados usando o código de rastreio único.
-	 * O código de rastreio é gerado automaticamente no formato "MIKUXXXXXXXXBR".
+	 * A visão fica no {@link TrackingViewCache} e é removida após cada alteração do pedido,
+	 * então a maior parte das consultas não chega ao banco. Quando não está em cache,
+	 * o pedido e seu histórico são carregados em uma única consulta.
 	 * 
-	 * @param code Código de rastreio do pedido (ex: "MIKU12345678BR")
-	 * @return Order com todos os dados do pedido incluindo histórico de status
+	 * @param code Código de rastreio do pedido (ex: "MIKU06JHVHS1R0MTMBBR")
+	 * @return TrackingViewDTO com os dados do pedido incluindo histórico de status
 	 * @throws RuntimeException se o pedido não for encontrado com o código informado
 	 */
-	public Order consultByCode(String code) {
-		return orderRepository.findByTrackingCode(code)
-				.orElseThrow(() -> new RuntimeException("Pacote não encontrado com o codigo: " + code));
+	public TrackingViewDTO getTrackingView(String code) {
+		if (!TrackingCodeGenerator.isValid(code)) {
+			throw new RuntimeException("Pacote não encontrado com o codigo: " + code);
+		}
+		return trackingViewCache.get(code, trackingCode -> orderRepository.findWithStatusUpdatesByTrackingCode(trackingCode)
+				.map(orderMapper::toTrackingView)
+				.orElseThrow(() -> new RuntimeException("Pacote não encontrado com o codigo: " + trackingCode)));
+	}
+	
+	/**
+	 * Gera o ETag da consulta pública de rastreio sem montar a resposta.
+	 * 
+	 * Usa a visão em cache quando existir; caso contrário, faz apenas uma consulta
+	 * agregada (contagem e data da última atualização), sem carregar as entidades.
+	 * 
+	 * @param code Código de rastreio do pedido
+	 * @return ETag da visão atual do pedido, ou null se o código não existir
+	 */
+	public String getTrackingETag(String code) {
+		if (!TrackingCodeGenerator.isValid(code)) {
+			return null;
+		}
+		TrackingViewDTO cached = trackingViewCache.getIfPresent(code);
+		if (cached != null) {
+			return OrderVersionDTO.of(cached).toETag();
+		}
+		OrderVersionDTO version = orderRepository.findVersionByTrackingCode(code);
+		return version == null || version.isEmpty() ? null : version.toETag();
 	}
 	
 	/**
 	 * Busca um pedido pelo ID.
 	 * 
-	 * Retorna todos os dados do pedido incluindo o histórico completo de atualizações de status.
+	 * Retorna todos os dados do pedido incluindo o histórico completo de atualizações de status,
+	 * carregados em uma única consulta.
 	 * 
 	 * @param id ID único do pedido no banco de dados
-	 * @return Order com todos os dados do pedido
+	 * @return TrackingViewDTO com todos os dados do pedido
 	 * @throws RuntimeException se o pedido não for encontrado com o ID informado
 	 */
-	public Order getOrderById(Long id) {
-		return orderRepository.findById(id)
+	public TrackingViewDTO getOrderById(Long id) {
+		return orderRepository.findWithStatusUpdatesById(id)
+			.map(orderMapper::toTrackingView)
 			.orElseThrow(() -> new RuntimeException("Pacote não encontrado com ID: " + id));
 	}
 	
 	/**
-	 * Retorna todos os pedidos cadastrados no sistema.
+	 * Lista os pedidos do sistema em páginas, do mais recente ao mais antigo.
+	 * 
+	 * Usa paginação por chave: o cursor identifica o último pedido da página anterior,
+	 * então cada página custa o mesmo, não importa quantos pedidos existam antes dela.
+	 * 
+	 * @param filter Filtros opcionais (cliente, período de criação e status atual)
+	 * @param cursor Cursor retornado na página anterior (null para a primeira página)
+	 * @param size Quantidade de pedidos por página (limitada a mikuexpress.admin.orders.max-page-size)
+	 * @return OrderPageDTO com os pedidos e o cursor da próxima página
+	 * @throws RuntimeException se o cursor for inválido
+	 */
+	public OrderPageDTO listOrders(OrderFilterDTO filter, String cursor, int size) {
+		int limit = Math.max(1, Math.min(size, maxPageSize));
+		LocalDateTime afterDateCreate = null;
+		Long afterId = null;
+		
+		if (cursor != null && !cursor.isBlank()) {
+			try {
+				String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+				afterDateCreate = LocalDateTime.parse(parts[0]);
+				afterId = Long.valueOf(parts[1]);
+			} catch (Exception e) {
+				throw new RuntimeException("Cursor inválido: " + cursor);
+			}
+		}
+		
+		List<OrderSummaryDTO> orders = orderListingRepository.findPage(filter, afterDateCreate, afterId, limit);
+		String nextCursor = null;
+		if (orders.size() == limit) {
+			OrderSummaryDTO last = orders.get(orders.size() - 1);
+			nextCursor = Base64.getUrlEncoder().withoutPadding()
+					.encodeToString((last.dateCreate() + "|" + last.id()).getBytes(StandardCharsets.UTF_8));
+		}
+		return new OrderPageDTO(orders, nextCursor);
+	}
+	
+	/**
+	 * Exporta todos os pedidos do filtro em NDJSON (um pedido por linha).
 	 * 
-	 * Este método é útil para administradores visualizarem todos os pedidos.
-	 * Retorna uma lista vazia se não houver pedidos cadastrados.
+	 * Os pedidos são lidos por cursor e escritos à medida que chegam, então a memória
+	 * usada não depende da quantidade de pedidos.
 	 * 
-	 * @return Lista de todos os pedidos do sistema
+	 * @param filter Filtros opcionais (cliente, período de criação e status atual)
+	 * @param output Stream de saída da resposta
 	 */
-	public List<Order> getAllOrders() {
-		return orderRepository.findAll();
+	@Transactional(readOnly = true)
+	public void exportOrders(OrderFilterDTO filter, OutputStream output) {
+		long[] exported = {0};
+		orderListingRepository.stream(filter, order -> {
+			try {
+				output.write(objectMapper.writeValueAsBytes(order));
+				output.write('\n');
+				exported[0]++;
+			} catch (IOException e) {
+				throw new UncheckedIOException("Erro ao escrever a exportação de pedidos", e);
+			}
+		});
+		log.info("Exportação de pedidos finalizada: {} pedidos", exported[0]);
 	}
 	
 	/**
@@ -208,12 +380,23 @@ public class OrderService {
 	 * 
 	 * Este método é útil para clientes visualizarem apenas seus próprios pedidos.
 	 * O email é usado como identificador do cliente.
+	 * Os pedidos e seus históricos de status são carregados em uma única consulta.
 	 * 
 	 * @param customerEmail Email do cliente para filtrar os pedidos
-	 * @return Lista de pedidos do cliente informado (pode ser vazia se não houver pedidos)
+	 * @return Lista de pedidos do cliente informado, do mais recente ao mais antigo (pode ser vazia se não houver pedidos)
 	 */
-	public List<Order> getOrdersByCustomerEmail(String customerEmail) {
-		return orderRepository.findByCustomerEmail(customerEmail);
+	public List<TrackingViewDTO> getOrdersByCustomerEmail(String customerEmail) {
+		return orderMapper.toTrackingViews(orderRepository.findWithStatusUpdatesByCustomerEmailOrderByDateCreateDesc(customerEmail));
+	}
+	
+	/**
+	 * Gera o ETag da lista de pedidos de um cliente sem carregar os pedidos.
+	 * 
+	 * @param customerEmail Email do cliente
+	 * @return ETag que muda quando um pedido do cliente é criado, removido ou atualizado
+	 */
+	public String getOrdersETag(String customerEmail) {
+		return orderRepository.findVersionByCustomerEmail(customerEmail).toETag();
 	}
 	
 	/**
@@ -228,22 +411,89 @@ public class OrderService {
 	 */
 	@Transactional
 	public void deleteOrder(Long id) {
-		if (!orderRepository.existsById(id)) {
-			throw new RuntimeException("Pacote não encontrado com ID: " + id);
+		Order order = orderRepository.findById(id)
+			.orElseThrow(() -> new RuntimeException("Pacote não encontrado com ID: " + id));
+		orderRepository.delete(order);
+		eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), order.getTrackingCode()));
+	}
+	
+	/**
+	 * Executa uma consulta externa em uma thread virtual com prazo próprio.
+	 * 
+	 * Se o prazo (mikuexpress.lookup.timeout-ms) expirar ou a consulta for cancelada,
+	 * a thread virtual é interrompida para liberar a conexão HTTP.
+	 * 
+	 * @param lookup Consulta a ser executada
+	 * @return CompletableFuture com o resultado da consulta
+	 */
+	private <T> CompletableFuture<T> lookupAsync(Supplier<T> lookup) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Future<?> task = lookupExecutor.submit(() -> {
+			try {
+				result.complete(lookup.get());
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		result.orTimeout(lookupTimeoutMs, TimeUnit.MILLISECONDS)
+			.whenComplete((value, ex) -> {
+				if (ex != null) {
+					task.cancel(true);
+				}
+			});
+		return result;
+	}
+	
+	/**
+	 * Aguarda todas as consultas terminarem.
+	 * 
+	 * Na primeira falha as demais consultas são canceladas imediatamente e
+	 * a exceção original é relançada, sem esperar pelas outras respostas.
+	 * 
+	 * @param lookups Consultas iniciadas por {@link #lookupAsync(Supplier)}
+	 * @throws RuntimeException com a causa da primeira consulta que falhou
+	 */
+	private void awaitAll(CompletableFuture<?>... lookups) {
+		AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+		for (CompletableFuture<?> lookup : lookups) {
+			lookup.whenComplete((value, ex) -> {
+				if (ex != null && firstFailure.compareAndSet(null, ex)) {
+					for (CompletableFuture<?> other : lookups) {
+						other.cancel(true);
+					}
+				}
+			});
+		}
+		
+		try {
+			CompletableFuture.allOf(lookups).join();
+		} catch (Exception e) {
+			Throwable cause = firstFailure.get() != null ? firstFailure.get() : e;
+			while (cause instanceof CompletionException && cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			if (cause instanceof TimeoutException) {
+				log.error("Tempo limite de {} ms excedido ao consultar ViaCEP", lookupTimeoutMs);
+				throw new RuntimeException("Tempo limite excedido ao consultar os CEPs informados.");
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new RuntimeException("Erro ao consultar os CEPs informados: " + cause.getMessage(), cause);
 		}
-		orderRepository.deleteById(id);
 	}
 	
 	/**
-     * Gera um código de rastreio único para um pedido.
-     * 
-     * O código é gerado no formato: "MIKU" + 8 caracteres aleatórios (UUID) + "BR"
-     * Exemplo: "MIKU12345678BR"
-     * 
-     * @return String com o código de rastreio único gerado
-     */
-    private String generateTrackingCode() {
-        // Ex: MIKUA4B9C2D8BR
-        return "MIKU" + UUID.randomUUID().toString().substring(0, 8).toUpperCase() + "BR";
-    }
+	 * Registra o tempo gasto em uma etapa da criação do pedido no timer
+	 * "mikuexpress.order.create" (tag stage), com percentis p50/p99.
+	 * 
+	 * @param stage Nome da etapa (cep, distance, persist, outbox, total)
+	 * @param startNanos Instante de início da etapa (System.nanoTime())
+	 * @return Instante de término da etapa, usado como início da próxima
+	 */
+	private long recordStage(String stage, long startNanos) {
+		long now = System.nanoTime();
+		meterRegistry.timer("mikuexpress.order.create", "stage", stage).record(now - startNanos, TimeUnit.NANOSECONDS);
+		return now;
+	}
 }
@@ -0,0 +1,145 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mikuexpress.mikuexpress.entity.RefreshToken;
+import com.mikuexpress.mikuexpress.repository.RefreshTokenRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Emissão e troca (rotação) dos refresh tokens.
+ * 
+ * O refresh token é um valor aleatório de 256 bits entregue ao cliente; no banco fica
+ * apenas o seu SHA-256. Como o valor é aleatório e longo, um hash rápido basta e a
+ * troca não passa pelo BCrypt do login.
+ * 
+ * Cada troca marca o token como usado e emite um novo na mesma família. Se um token
+ * já usado for apresentado de novo (token vazado ou copiado), a família inteira é
+ * revogada e o usuário precisa fazer login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final RefreshTokenRepository refreshTokenRepository;
+	
+	@Value("${mikuexpress.security.refresh.ttl}")
+	private Duration ttl;
+
+	/**
+	 * Emite o primeiro refresh token de uma nova sessão (nova família).
+	 * 
+	 * @param userId ID do usuário autenticado
+	 * @return Refresh token a ser entregue ao cliente
+	 */
+	@Transactional
+	public String issue(Long userId) {
+		return create(userId, UUID.randomUUID().toString());
+	}
+	
+	/**
+	 * Troca um refresh token válido por um novo da mesma família.
+	 * 
+	 * @param refreshToken Refresh token apresentado pelo cliente
+	 * @return Usuário dono do token e o novo refresh token, ou null se o token não existir,
+	 *         estiver expirado, revogado ou já tiver sido usado (nesse caso a família é revogada)
+	 */
+	@Transactional
+	public Rotation rotate(String refreshToken) {
+		RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken)).orElse(null);
+		LocalDateTime now = LocalDateTime.now();
+		
+		if (current == null || current.getRevokedAt() != null || !current.getExpiresAt().isAfter(now)) {
+			return null;
+		}
+		
+		if (current.getUsedAt() != null) {
+			int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+			log.warn("Refresh token reutilizado pelo usuário ID {}: família {} revogada ({} tokens)",
+					current.getUserId(), current.getFamilyId(), revoked);
+			return null;
+		}
+		
+		current.setUsedAt(now);
+		return new Rotation(current.getUserId(), create(current.getUserId(), current.getFamilyId()));
+	}
+	
+	/**
+	 * Revoga a família do refresh token informado (logout do dispositivo).
+	 * 
+	 * @param refreshToken Refresh token apresentado pelo cliente
+	 */
+	@Transactional
+	public void revokeFamily(String refreshToken) {
+		refreshTokenRepository.findByTokenHash(hash(refreshToken))
+				.ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+	}
+	
+	/**
+	 * Revoga todos os refresh tokens do usuário.
+	 * 
+	 * @param userId ID do usuário
+	 */
+	@Transactional
+	public void revokeAllForUser(Long userId) {
+		refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+	}
+	
+	/**
+	 * Remove os refresh tokens expirados.
+	 */
+	@Scheduled(fixedDelayString = "${mikuexpress.security.refresh.cleanup-interval-ms}")
+	public void deleteExpired() {
+		int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+		if (deleted > 0) {
+			log.info("{} refresh tokens expirados removidos", deleted);
+		}
+	}
+	
+	private String create(Long userId, String familyId) {
+		byte[] bytes = new byte[32];
+		RANDOM.nextBytes(bytes);
+		String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		
+		LocalDateTime now = LocalDateTime.now();
+		RefreshToken entity = new RefreshToken();
+		entity.setTokenHash(hash(refreshToken));
+		entity.setFamilyId(familyId);
+		entity.setUserId(userId);
+		entity.setDateCreate(now);
+		entity.setExpiresAt(now.plus(ttl));
+		refreshTokenRepository.save(entity);
+		
+		return refreshToken;
+	}
+	
+	private static String hash(String refreshToken) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 indisponível", e);
+		}
+	}
+	
+	public record Rotation(Long userId, String refreshToken) {
+	}
+}
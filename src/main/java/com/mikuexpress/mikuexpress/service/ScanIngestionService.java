@@ -0,0 +1,244 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mikuexpress.mikuexpress.dto.OrderCodeDTO;
+import com.mikuexpress.mikuexpress.dto.ScanAckDTO;
+import com.mikuexpress.mikuexpress.dto.ScanEventDTO;
+import com.mikuexpress.mikuexpress.dto.StatusUpdateDTO;
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+import com.mikuexpress.mikuexpress.event.OrderChangedEvent;
+import com.mikuexpress.mikuexpress.repository.OrderCurrentStatusRepository;
+import com.mikuexpress.mikuexpress.repository.OrderRepository;
+import com.mikuexpress.mikuexpress.repository.StatusUpdateRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ingestão em massa das leituras (scans) feitas nos hubs.
+ * 
+ * O corpo é NDJSON, um {@link ScanEventDTO} por linha. As linhas são processadas em
+ * lotes de mikuexpress.scan.batch-size, e cada lote custa poucas idas ao banco,
+ * independente da quantidade de eventos:
+ * 1. Todos os códigos de rastreio do lote são resolvidos em uma única consulta
+ * 2. As atualizações de status são inseridas em lote JDBC (INSERT multi-valores)
+ * 3. O status atual dos pedidos é atualizado em um único lote de UPDATEs
+ * 4. Os e-mails entram na caixa de saída (enviados pelo EmailOutboxWorker)
+ * 
+ * Cada linha recebe uma confirmação ({@link ScanAckDTO}) na resposta assim que seu
+ * lote é confirmado no banco.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScanIngestionService {
+
+	private final OrderService orderService;
+	private final OrderRepository orderRepository;
+	private final StatusUpdateRepository statusUpdateRepository;
+	private final OrderCurrentStatusRepository orderCurrentStatusRepository;
+	private final EmailOutboxService emailOutboxService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	
+	@Value("${mikuexpress.scan.batch-size}")
+	private int batchSize;
+
+	/**
+	 * Lê os eventos do corpo da requisição e escreve a confirmação de cada linha como
+	 * NDJSON na saída, na ordem das linhas.
+	 * 
+	 * Erros de uma linha (parse, código inexistente) não interrompem as demais.
+	 * 
+	 * @param body Corpo da requisição com os eventos em NDJSON
+	 * @param output Saída onde as confirmações são escritas
+	 * @throws IOException se não for possível ler o corpo ou escrever na saída
+	 */
+	public void ingest(InputStream body, OutputStream output) throws IOException {
+		long accepted = 0;
+		long failed = 0;
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+			List<ScanRow> batch = new ArrayList<>(batchSize);
+			long lineNumber = 0;
+			String line;
+			
+			while (true) {
+				line = reader.readLine();
+				if (line != null) {
+					lineNumber++;
+					if (line.isBlank()) {
+						continue;
+					}
+					batch.add(new ScanRow(lineNumber, line));
+					if (batch.size() < batchSize) {
+						continue;
+					}
+				}
+				
+				for (ScanAckDTO ack : processBatch(batch)) {
+					if ("ACCEPTED".equals(ack.status())) {
+						accepted++;
+					} else {
+						failed++;
+					}
+					output.write(objectMapper.writeValueAsBytes(ack));
+					output.write('\n');
+				}
+				output.flush();
+				batch.clear();
+				
+				if (line == null) {
+					break;
+				}
+			}
+		} finally {
+			meterRegistry.counter("mikuexpress.scan.events", "result", "accepted").increment(accepted);
+			meterRegistry.counter("mikuexpress.scan.events", "result", "error").increment(failed);
+			log.info("Ingestão de leituras finalizada: {} aceitas, {} com erro", accepted, failed);
+		}
+	}
+
+	private List<ScanAckDTO> processBatch(List<ScanRow> batch) {
+		ScanAckDTO[] acks = new ScanAckDTO[batch.size()];
+		ScanEventDTO[] events = new ScanEventDTO[batch.size()];
+		Set<String> codes = new LinkedHashSet<>();
+		
+		// 1. Parse e validação, sem banco
+		for (int i = 0; i < batch.size(); i++) {
+			ScanRow row = batch.get(i);
+			try {
+				ScanEventDTO event = objectMapper.readValue(row.content(), ScanEventDTO.class);
+				String error = validate(event);
+				if (error != null) {
+					acks[i] = ScanAckDTO.error(row.line(), event.trackingCode(), error);
+				} else {
+					events[i] = event;
+					codes.add(event.trackingCode());
+				}
+			} catch (Exception e) {
+				acks[i] = ScanAckDTO.error(row.line(), null, "Linha inválida: " + e.getMessage());
+			}
+		}
+		
+		// 2. Resolução de todos os códigos em uma consulta
+		Map<String, Long> orderIds = new HashMap<>();
+		if (!codes.isEmpty()) {
+			for (OrderCodeDTO order : orderRepository.findIdsByTrackingCodes(codes)) {
+				orderIds.put(order.trackingCode(), order.id());
+			}
+		}
+		
+		List<Integer> positions = new ArrayList<>();
+		for (int i = 0; i < batch.size(); i++) {
+			ScanEventDTO event = events[i];
+			if (event == null) {
+				continue;
+			}
+			Long orderId = orderIds.get(event.trackingCode());
+			if (orderId == null) {
+				acks[i] = ScanAckDTO.error(batch.get(i).line(), event.trackingCode(), "Pacote não encontrado com o codigo: " + event.trackingCode());
+				continue;
+			}
+			positions.add(i);
+		}
+		
+		// 3. Gravação do lote inteiro em uma transação; se falhar, grava evento a evento
+		if (!positions.isEmpty()) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> saveAll(positions, events, orderIds));
+				for (int i : positions) {
+					acks[i] = ScanAckDTO.accepted(batch.get(i).line(), events[i].trackingCode());
+				}
+			} catch (Exception batchError) {
+				log.warn("Falha ao gravar lote de {} leituras, gravando individualmente", positions.size(), batchError);
+				for (int i : positions) {
+					acks[i] = saveOne(batch.get(i).line(), events[i], orderIds.get(events[i].trackingCode()));
+				}
+			}
+		}
+		
+		return List.of(acks);
+	}
+	
+	private void saveAll(List<Integer> positions, ScanEventDTO[] events, Map<String, Long> orderIds) {
+		LocalDateTime now = LocalDateTime.now();
+		List<StatusUpdate> statusUpdates = new ArrayList<>(positions.size());
+		for (int i : positions) {
+			statusUpdates.add(toStatusUpdate(events[i], orderIds.get(events[i].trackingCode()), now));
+		}
+		
+		statusUpdateRepository.saveAll(statusUpdates);
+		orderCurrentStatusRepository.updateCurrentStatuses(statusUpdates);
+		emailOutboxService.enqueueStatusUpdates(statusUpdates);
+		
+		Set<Long> changed = new HashSet<>();
+		for (StatusUpdate statusUpdate : statusUpdates) {
+			changed.add(statusUpdate.getOrder().getId());
+		}
+		orderIds.forEach((trackingCode, orderId) -> {
+			if (changed.contains(orderId)) {
+				eventPublisher.publishEvent(new OrderChangedEvent(orderId, trackingCode));
+			}
+		});
+	}
+	
+	private ScanAckDTO saveOne(long line, ScanEventDTO event, Long orderId) {
+		try {
+			orderService.addStatusUpdate(new StatusUpdateDTO(event.status(), event.source(), event.destination()), orderId,
+					event.dateUpdate() != null ? event.dateUpdate() : LocalDateTime.now());
+			return ScanAckDTO.accepted(line, event.trackingCode());
+		} catch (Exception e) {
+			return ScanAckDTO.error(line, event.trackingCode(), "Erro ao salvar a leitura: " + e.getMessage());
+		}
+	}
+	
+	private StatusUpdate toStatusUpdate(ScanEventDTO event, Long orderId, LocalDateTime now) {
+		StatusUpdate statusUpdate = new StatusUpdate();
+		statusUpdate.setStatus(event.status());
+		statusUpdate.setSource(event.source());
+		statusUpdate.setDestination(event.destination());
+		statusUpdate.setDateUpdate(event.dateUpdate() != null ? event.dateUpdate() : now);
+		statusUpdate.setOrder(orderRepository.getReferenceById(orderId));
+		return statusUpdate;
+	}
+	
+	private String validate(ScanEventDTO event) {
+		if (!TrackingCodeGenerator.isValid(event.trackingCode())) {
+			return "Código de rastreio inválido: " + event.trackingCode();
+		}
+		if (event.status() == null || event.status().isBlank()) {
+			return "Status é obrigatório";
+		}
+		if (event.source() == null || event.source().isBlank()) {
+			return "Localização (source) é obrigatória";
+		}
+		return null;
+	}
+
+	private record ScanRow(long line, String content) {
+	}
+}
@@ -1,9 +1,12 @@
 package com.mikuexpress.mikuexpress.service;
 
+import java.util.function.Supplier;
+
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.mikuexpress.mikuexpress.entity.UserAdmin;
 import com.mikuexpress.mikuexpress.entity.UserGeneric;
@@ -19,13 +22,15 @@ import lombok.extern.slf4j.Slf4j;
 public class SecurityService {
 	private final UserPublicRepository userPublicRepository;
 	private final UserAdminServcice userAdminService;
+	private final CurrentUserContext currentUserContext;
 
 	/**
 	 * Obtém o usuário genérico atualmente autenticado do SecurityContext.
 	 * 
 	 * Este método extrai o usuário autenticado do contexto de segurança do Spring.
 	 * Não realiza consulta ao banco de dados, utilizando o objeto já carregado em memória.
-	 * Use este método quando precisar de campos comuns (id, email, name, phoneNumber, role).
+	 * Use este método quando precisar de campos comuns (id, email, name, role). Quando o
+	 * principal é montado a partir das claims do token, os demais campos vêm nulos.
 	 * 
 	 * @return UserGeneric do usuário autenticado
 	 * @throws UsernameNotFoundException se nenhum usuário estiver autenticado ou se o principal não for UserGeneric
@@ -99,7 +104,8 @@ public class SecurityService {
 	 * 
 	 * Este método busca no banco de dados para garantir que o usuário autenticado
 	 * é realmente do tipo UserPublic e retorna os campos específicos (cpf, dateOfBirth, gender).
-	 * Use apenas quando precisar de campos específicos de cliente, pois realiza uma consulta ao banco.
+	 * A consulta é feita no máximo uma vez por requisição, e nenhuma quando o principal
+	 * já é um UserPublic. Use apenas quando precisar de campos específicos de cliente.
 	 * 
 	 * @return UserPublic do usuário autenticado com todos os campos específicos
 	 * @throws RuntimeException se o usuário não for do tipo UserPublic
@@ -107,11 +113,14 @@ public class SecurityService {
 	public UserPublic getCurrentUserPublic() {
 		UserGeneric userGeneric = getCurrentUser();
 		
-		return userPublicRepository.findById(userGeneric.getId())
-			.orElseThrow(() -> {
-				log.error("Usuário autenticado {} não é um UserPublic", userGeneric.getId());
-				return new RuntimeException("Usuário não é do tipo Cliente");
-			});
+		// Principal carregado do banco pelo filtro JWT já é a entidade completa
+		if (userGeneric instanceof UserPublic userPublic) {
+			return userPublic;
+		}
+		
+		return memoized(
+			() -> currentUserContext.userPublic(() -> loadUserPublic(userGeneric.getId())),
+			() -> loadUserPublic(userGeneric.getId()));
 	}
 	
 	/**
@@ -119,7 +128,8 @@ public class SecurityService {
 	 * 
 	 * Este método busca no banco de dados para garantir que o usuário autenticado
 	 * é realmente do tipo UserAdmin e retorna os campos específicos (cnpj, organizationName).
-	 * Use apenas quando precisar de campos específicos de administrador, pois realiza uma consulta ao banco.
+	 * A consulta é feita no máximo uma vez por requisição, e nenhuma quando o principal
+	 * já é um UserAdmin. Use apenas quando precisar de campos específicos de administrador.
 	 * 
 	 * @return UserAdmin do usuário autenticado com todos os campos específicos
 	 * @throws RuntimeException se o usuário não for do tipo UserAdmin
@@ -127,7 +137,26 @@ public class SecurityService {
 	public UserAdmin getCurrentUserAdmin() {
 		UserGeneric userGeneric = getCurrentUser();
 		
-		return userAdminService.getAccountDetails(userGeneric.getId());
+		if (userGeneric instanceof UserAdmin userAdmin) {
+			return userAdmin;
+		}
+		
+		return memoized(
+			() -> currentUserContext.userAdmin(() -> userAdminService.getAccountDetails(userGeneric.getId())),
+			() -> userAdminService.getAccountDetails(userGeneric.getId()));
+	}
+	
+	private UserPublic loadUserPublic(Long userId) {
+		return userPublicRepository.findById(userId)
+			.orElseThrow(() -> {
+				log.error("Usuário autenticado {} não é um UserPublic", userId);
+				return new RuntimeException("Usuário não é do tipo Cliente");
+			});
+	}
+	
+	// Fora de uma requisição HTTP (ex.: tarefas agendadas) não há escopo de requisição
+	private static <T> T memoized(Supplier<T> inRequest, Supplier<T> outsideRequest) {
+		return RequestContextHolder.getRequestAttributes() != null ? inRequest.get() : outsideRequest.get();
 	}
 
 	/**
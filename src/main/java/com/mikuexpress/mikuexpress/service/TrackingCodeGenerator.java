@@ -0,0 +1,153 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gera os códigos de rastreio dos pedidos.
+ * 
+ * O código tem o formato "MIKU" + 13 caracteres + 1 dígito verificador + "BR"
+ * (ex: "MIKU06JHVHS1R0MTMBBR"). Os 13 caracteres são um número de 64 bits em Base32
+ * (alfabeto Crockford, sem I, L, O e U) composto por:
+ * 
+ * - 42 bits: milissegundos desde 2025-01-01 (válido até ~2164)
+ * - 10 bits: ID do nó (mikuexpress.tracking.node-id, 0 a 1023)
+ * - 12 bits: sequência dentro do milissegundo (4096 códigos/ms por nó)
+ * 
+ * Por isso os códigos são únicos entre nós com IDs diferentes, crescem com o tempo
+ * (inserções agrupadas no final do índice) e a geração não usa locks (apenas CAS).
+ * 
+ * O dígito verificador (Luhn mod 32) permite rejeitar códigos digitados errado
+ * sem consultar o banco.
+ */
+@Component
+@Slf4j
+public class TrackingCodeGenerator {
+
+	private static final String PREFIX = "MIKU";
+	private static final String SUFFIX = "BR";
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+	private static final int BODY_LENGTH = 13;
+	private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+	
+	private static final int NODE_BITS = 10;
+	private static final int SEQUENCE_BITS = 12;
+	private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+	private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+	
+	// Formato gerado antes deste componente: "MIKU" + 8 hexadecimais + "BR"
+	private static final Pattern LEGACY_FORMAT = Pattern.compile("MIKU[0-9A-F]{8}BR");
+	private static final Pattern FORMAT = Pattern.compile("MIKU[0-9A-HJKMNP-TV-Z]{14}BR");
+	
+	private final long nodeId;
+	
+	// (milissegundo << SEQUENCE_BITS) | sequência do último código gerado
+	private final AtomicLong lastState = new AtomicLong();
+
+	public TrackingCodeGenerator(@Value("${mikuexpress.tracking.node-id}") long nodeId) {
+		if (nodeId < 0 || nodeId > MAX_NODE) {
+			throw new IllegalArgumentException("mikuexpress.tracking.node-id deve estar entre 0 e " + MAX_NODE + ": " + nodeId);
+		}
+		this.nodeId = nodeId;
+		log.info("Gerador de códigos de rastreio iniciado no nó {}", nodeId);
+	}
+	
+	/**
+	 * Gera um novo código de rastreio único.
+	 * 
+	 * Se a sequência do milissegundo atual se esgotar, o código usa o milissegundo
+	 * seguinte, sem esperar o relógio.
+	 * 
+	 * @return Código de rastreio com dígito verificador
+	 */
+	public String generate() {
+		long previous;
+		long next;
+		do {
+			previous = lastState.get();
+			long now = System.currentTimeMillis() - EPOCH;
+			long previousMillis = previous >>> SEQUENCE_BITS;
+			
+			if (now > previousMillis) {
+				next = now << SEQUENCE_BITS;
+			} else if ((previous & MAX_SEQUENCE) < MAX_SEQUENCE) {
+				next = previous + 1;
+			} else {
+				next = (previousMillis + 1) << SEQUENCE_BITS;
+			}
+		} while (!lastState.compareAndSet(previous, next));
+		
+		long millis = next >>> SEQUENCE_BITS;
+		long id = (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & MAX_SEQUENCE);
+		return format(id);
+	}
+	
+	/**
+	 * Verifica se o texto tem o formato de um código de rastreio, sem consultar o banco.
+	 * 
+	 * Aceita os códigos atuais (com dígito verificador correto) e os códigos antigos
+	 * ("MIKU" + 8 hexadecimais + "BR").
+	 * 
+	 * @param code Código informado pelo cliente
+	 * @return true se o código pode existir
+	 */
+	public static boolean isValid(String code) {
+		if (code == null) {
+			return false;
+		}
+		if (LEGACY_FORMAT.matcher(code).matches()) {
+			return true;
+		}
+		if (!FORMAT.matcher(code).matches()) {
+			return false;
+		}
+		String body = code.substring(PREFIX.length(), PREFIX.length() + BODY_LENGTH);
+		char checkDigit = code.charAt(PREFIX.length() + BODY_LENGTH);
+		return checkDigit(body) == checkDigit;
+	}
+	
+	private static String format(long id) {
+		char[] body = new char[BODY_LENGTH];
+		for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+			body[i] = ALPHABET[(int) (id & 31)];
+			id >>>= 5;
+		}
+		String encoded = new String(body);
+		return PREFIX + encoded + checkDigit(encoded) + SUFFIX;
+	}
+	
+	/**
+	 * Dígito verificador Luhn mod N (N = 32): detecta qualquer caractere trocado
+	 * e a maioria das transposições de caracteres vizinhos.
+	 */
+	private static char checkDigit(String body) {
+		int sum = 0;
+		boolean doubled = true;
+		for (int i = body.length() - 1; i >= 0; i--) {
+			int value = indexOf(body.charAt(i));
+			if (doubled) {
+				value *= 2;
+				value = (value / ALPHABET.length) + (value % ALPHABET.length);
+			}
+			sum += value;
+			doubled = !doubled;
+		}
+		int check = (ALPHABET.length - (sum % ALPHABET.length)) % ALPHABET.length;
+		return ALPHABET[check];
+	}
+	
+	private static int indexOf(char c) {
+		for (int i = 0; i < ALPHABET.length; i++) {
+			if (ALPHABET[i] == c) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Caractere inválido no código de rastreio: " + c);
+	}
+}
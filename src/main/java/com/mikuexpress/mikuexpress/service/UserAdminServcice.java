@@ -3,6 +3,7 @@ package com.mikuexpress.mikuexpress.service;
 import java.util.List;
 import java.util.Objects;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,9 +12,11 @@ import com.mikuexpress.mikuexpress.dto.CreateUserAdminDTO;
 import com.mikuexpress.mikuexpress.dto.UpdateUserAdminDTO;
 import com.mikuexpress.mikuexpress.entity.UserAdmin;
 import com.mikuexpress.mikuexpress.enums.Role;
+import com.mikuexpress.mikuexpress.event.UserChangedEvent;
 import com.mikuexpress.mikuexpress.mappers.UserAdminMapper;
 import com.mikuexpress.mikuexpress.repository.UserAdminRepository;
 import com.mikuexpress.mikuexpress.repository.UserGenericRepository;
+import com.mikuexpress.mikuexpress.security.TokenRevocationList;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,6 +27,9 @@ public class UserAdminServcice {
 	private final UserAdminRepository userAdminRepository;
     private final UserGenericRepository userGenericRepository; 
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenService refreshTokenService;
     private final UserAdminMapper userAdminMapper;
 	
 	/**
@@ -101,13 +107,16 @@ public class UserAdminServcice {
 			uptadeUser.setOrganizationName(dto.organizationName());
 		}
 		
+		eventPublisher.publishEvent(new UserChangedEvent(userId));
 		return userAdminRepository.save(uptadeUser);
 	}
 	
 	/**
 	 * Remove um usuário administrador do sistema permanentemente.
 	 * 
-	 * A operação é irreversível e remove o usuário do banco de dados.
+	 * A operação é irreversível e remove o usuário do banco de dados. Os tokens do
+	 * usuário são revogados na mesma transação, para que ele deixe de autenticar em
+	 * todas as instâncias, e não só nesta (ver PrincipalCache).
 	 * 
 	 * @param userId ID do usuário administrador a ser excluído
 	 * @throws RuntimeException se o usuário não for encontrado
@@ -118,6 +127,9 @@ public class UserAdminServcice {
             throw new RuntimeException("Usuário não encontrado.");
         }
     	userAdminRepository.deleteById(userId);
+        tokenRevocationList.revokeAllForUser(userId);
+        refreshTokenService.revokeAllForUser(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     	
 	}
 	
@@ -2,6 +2,7 @@ package com.mikuexpress.mikuexpress.service;
 
 import java.util.Objects;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,8 +11,10 @@ import com.mikuexpress.mikuexpress.dto.CreateUserPublicDTO;
 import com.mikuexpress.mikuexpress.dto.UpdateUserPublicDTO;
 import com.mikuexpress.mikuexpress.entity.UserPublic;
 import com.mikuexpress.mikuexpress.enums.Role;
+import com.mikuexpress.mikuexpress.event.UserChangedEvent;
 import com.mikuexpress.mikuexpress.mappers.UserPublicMapper;
 import com.mikuexpress.mikuexpress.repository.UserGenericRepository;
+import com.mikuexpress.mikuexpress.security.TokenRevocationList;
 import com.mikuexpress.mikuexpress.repository.UserPublicRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -23,6 +26,9 @@ public class UserPublicServcice {
 	private final UserPublicRepository userPublicRepository;
     private final UserGenericRepository userGenericRepository; 
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenService refreshTokenService;
     private final UserPublicMapper userPublicMapper;
 	
 	/**
@@ -96,13 +102,16 @@ public class UserPublicServcice {
 		}
 		
 		
+		eventPublisher.publishEvent(new UserChangedEvent(userId));
 		return userPublicRepository.save(uptadeUser);
 	}
 	
 	/**
 	 * Remove um usuário cliente do sistema permanentemente.
 	 * 
-	 * A operação é irreversível e remove o usuário do banco de dados.
+	 * A operação é irreversível e remove o usuário do banco de dados. Os tokens do
+	 * usuário são revogados na mesma transação, para que ele deixe de autenticar em
+	 * todas as instâncias, e não só nesta (ver PrincipalCache).
 	 * 
 	 * @param userId ID do usuário cliente a ser excluído
 	 * @throws RuntimeException se o usuário não for encontrado
@@ -113,6 +122,9 @@ public class UserPublicServcice {
             throw new RuntimeException("Usuário não encontrado.");
         }
         userPublicRepository.deleteById(userId);
+        tokenRevocationList.revokeAllForUser(userId);
+        refreshTokenService.revokeAllForUser(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     	
 	}
 	
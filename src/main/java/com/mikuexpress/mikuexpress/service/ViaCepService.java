@@ -3,6 +3,7 @@ package com.mikuexpress.mikuexpress.service;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.mikuexpress.mikuexpress.cache.ViaCepCache;
 import com.mikuexpress.mikuexpress.dto.ViaCepResponseDTO;
 
 import lombok.RequiredArgsConstructor;
@@ -12,18 +13,26 @@ import lombok.RequiredArgsConstructor;
 public class ViaCepService {
 
 	private final RestTemplate restTemplate;
+	private final ViaCepCache viaCepCache;
 	
 	/**
 	 * Busca o endereço completo através da API ViaCEP usando o CEP informado.
 	 * 
 	 * Este método faz uma requisição GET para a API ViaCEP (https://viacep.com.br)
 	 * e retorna os dados completos do endereço incluindo logradouro, bairro, cidade e estado.
+	 * As respostas (inclusive de CEPs inexistentes) ficam em cache e consultas simultâneas
+	 * ao mesmo CEP são agrupadas, veja {@link ViaCepCache}.
 	 * 
 	 * @param cep CEP a ser consultado (apenas números, ex: "01310100")
 	 * @return ViaCepResponseDTO com os dados do endereço encontrado
 	 * @throws RuntimeException se houver erro na consulta à API ViaCEP ou se o CEP for inválido
 	 */
 	public ViaCepResponseDTO getAddressByCep(String cep) {
+		String normalizedCep = cep != null ? cep.replaceAll("\\D", "") : "";
+		return viaCepCache.get(normalizedCep, this::fetchAddress);
+	}
+	
+	private ViaCepResponseDTO fetchAddress(String cep) {
 		String url = "https://viacep.com.br/ws/" + cep + "/json/";
 		
 		try {
@@ -0,0 +1,27 @@
+-- Tabelas que não existiam no esquema original (V1): cache persistente de distâncias
+-- entre cidades e caixa de saída de e-mails. Também roda em bancos marcados como V1.
+
+create sequence if not exists email_outbox_seq start with 1 increment by 50;
+
+create table if not exists city_distance (
+	city_pair varchar(255) not null,
+	city_a varchar(255) not null,
+	city_b varchar(255) not null,
+	distance_km float(53) not null,
+	date_update timestamp(6) not null,
+	primary key (city_pair)
+);
+
+create table if not exists email_outbox (
+	outbox_id bigint not null,
+	type varchar(255) not null check (type in ('ORDER_CREATED','STATUS_UPDATE')),
+	order_id bigint not null,
+	status_id bigint,
+	status varchar(255) not null check (status in ('PENDING','PROCESSING','SENT','DEAD')),
+	attempts integer not null,
+	next_attempt_at timestamp(6) not null,
+	last_error varchar(1000),
+	date_create timestamp(6) not null,
+	date_sent timestamp(6),
+	primary key (outbox_id)
+);
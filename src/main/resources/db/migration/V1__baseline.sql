@@ -0,0 +1,61 @@
+-- Esquema inicial, equivalente ao que o Hibernate criava com ddl-auto=update.
+-- Bancos existentes são marcados nesta versão (spring.flyway.baseline-on-migrate)
+-- e não executam este script; por isso ele contém apenas o que a versão original
+-- da aplicação criava. Tabelas novas ficam nas migrações seguintes.
+
+create sequence if not exists order_seq start with 1 increment by 50;
+create sequence if not exists status_update_seq start with 1 increment by 50;
+create sequence if not exists user_generic_seq start with 1 increment by 50;
+
+create table if not exists orders (
+	order_id bigint not null,
+	tracking_code varchar(255) not null,
+	source varchar(255) not null,
+	destination varchar(255) not null,
+	distance varchar(255) not null,
+	price float(53) not null,
+	customer_email varchar(255) not null,
+	customer_name varchar(255) not null,
+	weight_in_kg float(53) not null,
+	date_create timestamp(6) not null,
+	primary key (order_id)
+);
+
+create table if not exists status_update (
+	status_id bigint not null,
+	status varchar(255) not null,
+	source varchar(255) not null,
+	destination varchar(255),
+	date_update timestamp(6) not null,
+	order_id bigint,
+	primary key (status_id),
+	constraint fk_status_update_order foreign key (order_id) references orders (order_id)
+);
+
+create table if not exists user_generic (
+	user_id bigint not null,
+	name varchar(255) not null,
+	email varchar(255) not null,
+	password varchar(255) not null,
+	phone_number varchar(255) not null,
+	role varchar(255) not null check (role in ('ADMIN','CLIENT')),
+	primary key (user_id),
+	constraint uk_user_generic_email unique (email)
+);
+
+create table if not exists user_public (
+	user_id bigint not null,
+	cpf varchar(255) not null,
+	date_of_birth date not null,
+	gender varchar(255) not null check (gender in ('MALE','WOMAN')),
+	primary key (user_id),
+	constraint fk_user_public_user foreign key (user_id) references user_generic (user_id)
+);
+
+create table if not exists user_admin (
+	user_id bigint not null,
+	cnpj varchar(255) not null,
+	organization_name varchar(255) not null,
+	primary key (user_id),
+	constraint fk_user_admin_user foreign key (user_id) references user_generic (user_id)
+);
@@ -0,0 +1,58 @@
+-- Índices das consultas mais frequentes.
+-- CONCURRENTLY não bloqueia leituras nem escritas nas tabelas durante a criação,
+-- mas não pode rodar dentro de transação (ver V2__hot_path_indexes.sql.conf).
+-- Se uma criação falhar, o índice fica INVALID e a migração falha: remova-o
+-- (DROP INDEX CONCURRENTLY) antes de executá-la novamente. Sem "if not exists",
+-- um índice INVALID deixado por uma tentativa anterior não passa por criado.
+
+-- Os códigos antigos ("MIKU" + 8 hexadecimais + "BR") tinham só 32 bits e nenhuma
+-- restrição de unicidade, então bancos grandes têm códigos repetidos. O pedido mais
+-- antigo de cada código o mantém; os demais recebem um novo código no formato antigo
+-- que ainda não exista.
+do $$
+declare
+	duplicate record;
+	new_code varchar(255);
+begin
+	for duplicate in
+		select order_id
+		from (
+			select order_id, row_number() over (partition by tracking_code order by order_id) as position
+			from orders
+		) codes
+		where position > 1
+	loop
+		loop
+			new_code := 'MIKU' || upper(lpad(to_hex(floor(random() * 4294967296)::bigint), 8, '0')) || 'BR';
+			exit when not exists (select 1 from orders where tracking_code = new_code);
+		end loop;
+		update orders set tracking_code = new_code where order_id = duplicate.order_id;
+		raise notice 'Pedido % recebeu o novo código de rastreio %', duplicate.order_id, new_code;
+	end loop;
+end $$;
+
+-- OrderRepository.findByTrackingCode; também impede códigos de rastreio duplicados
+create unique index concurrently uk_orders_tracking_code
+	on orders (tracking_code);
+
+-- OrderRepository.findByCustomerEmail (pedidos do cliente, do mais recente ao mais antigo)
+create index concurrently idx_orders_customer_email
+	on orders (customer_email, date_create desc);
+
+-- Histórico de status de um pedido e resumo de atualizações (order_id + date_update >=)
+create index concurrently idx_status_update_order
+	on status_update (order_id, date_update);
+
+-- EmailOutboxRepository.lockDue: apenas as mensagens ainda não enviadas
+create index concurrently idx_email_outbox_due
+	on email_outbox (next_attempt_at)
+	where status in ('PENDING', 'PROCESSING');
+
+-- EmailOutboxRepository.existsByOrderIdAndTypeAndStatus (modo resumo)
+create index concurrently idx_email_outbox_pending_order
+	on email_outbox (order_id, type)
+	where status = 'PENDING';
+
+-- CityDistanceRepository.findAllByOrderByDateUpdateDesc (aquecimento do cache)
+create index concurrently idx_city_distance_date_update
+	on city_distance (date_update desc);
@@ -0,0 +1,4 @@
+-- Paginação por chave da listagem de pedidos do administrador:
+-- order by date_create desc, order_id desc com (date_create, order_id) < (:data, :id)
+create index concurrently if not exists idx_orders_date_create
+	on orders (date_create desc, order_id desc);
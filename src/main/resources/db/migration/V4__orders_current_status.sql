@@ -0,0 +1,31 @@
+-- Status atual desnormalizado em orders, mantido por OrderService.addStatusUpdate.
+-- Colunas novas sem default: o Postgres só altera o catálogo, sem reescrever a tabela.
+alter table orders add column if not exists current_status varchar(255);
+alter table orders add column if not exists last_updated timestamp(6);
+
+-- Preenche os pedidos existentes em lotes de 10.000, com commit a cada lote,
+-- para não manter bloqueios longos sobre a tabela inteira.
+do $$
+declare
+	batch_start bigint := 0;
+	max_id bigint;
+begin
+	select coalesce(max(order_id), 0) into max_id from orders;
+	while batch_start <= max_id loop
+		update orders o
+		set current_status = cs.status, last_updated = cs.date_update
+		from (
+			select distinct on (s.order_id) s.order_id, s.status, s.date_update
+			from status_update s
+			where s.order_id > batch_start and s.order_id <= batch_start + 10000
+			order by s.order_id, s.date_update desc, s.status_id desc
+		) cs
+		where o.order_id = cs.order_id and o.current_status is null;
+		commit;
+		batch_start := batch_start + 10000;
+	end loop;
+end $$;
+
+-- Filtro por status atual da listagem de pedidos do administrador
+create index concurrently if not exists idx_orders_current_status
+	on orders (current_status, date_create desc, order_id desc);
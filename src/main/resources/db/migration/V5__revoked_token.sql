@@ -0,0 +1,16 @@
+-- Tokens JWT revogados antes de expirar (logout, troca de senha e logout forçado).
+-- revocation_key "jti:<id do token>" revoga um único token; "uid:<id do usuário>"
+-- revoga todos os tokens do usuário emitidos até revoked_at.
+create table if not exists revoked_token (
+	revocation_key varchar(80) not null,
+	user_id bigint not null,
+	revoked_at timestamp(6) not null,
+	expires_at timestamp(6) not null,
+	primary key (revocation_key)
+);
+
+-- Sincronização das revogações entre instâncias
+create index if not exists idx_revoked_token_revoked_at on revoked_token (revoked_at);
+
+-- Limpeza das revogações de tokens que já expiraram
+create index if not exists idx_revoked_token_expires_at on revoked_token (expires_at);
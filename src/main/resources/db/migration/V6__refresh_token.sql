@@ -0,0 +1,24 @@
+-- Refresh tokens de longa duração. Só o hash SHA-256 do token é guardado.
+-- Cada uso gera um novo token na mesma família (family_id); reapresentar um token
+-- já usado revoga a família inteira.
+create sequence if not exists refresh_token_seq start with 1 increment by 50;
+
+create table if not exists refresh_token (
+	refresh_token_id bigint not null,
+	token_hash varchar(64) not null,
+	family_id varchar(36) not null,
+	user_id bigint not null,
+	date_create timestamp(6) not null,
+	expires_at timestamp(6) not null,
+	used_at timestamp(6),
+	revoked_at timestamp(6),
+	primary key (refresh_token_id),
+	constraint uk_refresh_token_hash unique (token_hash)
+);
+
+-- Revogação por família (reuso detectado, logout) e por usuário (troca de senha, logout forçado)
+create index if not exists idx_refresh_token_family on refresh_token (family_id);
+create index if not exists idx_refresh_token_user on refresh_token (user_id);
+
+-- Limpeza dos tokens expirados
+create index if not exists idx_refresh_token_expires_at on refresh_token (expires_at);
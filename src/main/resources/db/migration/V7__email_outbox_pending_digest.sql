@@ -0,0 +1,17 @@
+-- Os resumos de status (mikuexpress.email.digest.enabled) passam a ter tipo próprio,
+-- STATUS_DIGEST, para que o índice único abaixo valha só para eles: fora do modo resumo
+-- cada atualização de status gera a sua própria mensagem pendente.
+alter table email_outbox drop constraint if exists email_outbox_type_check;
+alter table email_outbox add constraint email_outbox_type_check
+	check (type in ('ORDER_CREATED','STATUS_UPDATE','STATUS_DIGEST')) not valid;
+alter table email_outbox validate constraint email_outbox_type_check;
+
+-- No máximo um resumo pendente por pedido. EmailDigestRepository insere com
+-- ON CONFLICT DO NOTHING, então duas atualizações simultâneas do mesmo pedido
+-- não geram dois resumos.
+create unique index concurrently if not exists uk_email_outbox_pending_digest
+	on email_outbox (order_id, type)
+	where status = 'PENDING' and type = 'STATUS_DIGEST';
+
+-- Substituído pelo índice acima (servia à consulta de resumo pendente, que deixou de existir)
+drop index concurrently if exists idx_email_outbox_pending_order;
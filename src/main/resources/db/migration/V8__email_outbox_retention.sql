@@ -0,0 +1,10 @@
+-- Mensagens enviadas são removidas após mikuexpress.email.outbox.retention
+-- (EmailOutboxWorker.deleteSent), em lotes, das mais antigas para as mais novas.
+create index concurrently idx_email_outbox_sent
+	on email_outbox (date_sent)
+	where status = 'SENT';
+
+-- Contagem das mensagens DEAD (métrica mikuexpress.email.outbox.depth) sem varrer a tabela
+create index concurrently idx_email_outbox_dead
+	on email_outbox (outbox_id)
+	where status = 'DEAD';
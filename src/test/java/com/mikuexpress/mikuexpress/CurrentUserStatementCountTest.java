@@ -0,0 +1,111 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.UserAdmin;
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+import com.mikuexpress.mikuexpress.security.CustomAuthentication;
+import com.mikuexpress.mikuexpress.service.SecurityService;
+
+/**
+ * Garante que o usuário autenticado é resolvido sem consultas repetidas: os campos
+ * comuns vêm do token, e o UserPublic/UserAdmin só é carregado quando um campo
+ * específico é pedido, no máximo uma vez por requisição.
+ */
+class CurrentUserStatementCountTest extends StatementCountTest {
+
+	@Autowired
+	private SecurityService securityService;
+
+	@AfterEach
+	void clearRequest() {
+		RequestContextHolder.resetRequestAttributes();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void commonFieldsDoNotQueryTheDatabase() {
+		UserPublic client = createClient();
+		startRequest(client);
+		
+		statementCounter.reset();
+		securityService.getCurrentUserId();
+		securityService.getCurrentUserEmail();
+		securityService.isCurrentUserClient();
+		
+		assertThat(statementCounter.count()).isZero();
+	}
+
+	@Test
+	void userPublicIsLoadedOncePerRequest() {
+		UserPublic client = createClient();
+		startRequest(client);
+		
+		statementCounter.reset();
+		UserPublic first = securityService.getCurrentUserPublic();
+		UserPublic second = securityService.getCurrentUserPublic();
+		
+		assertThat(second).isSameAs(first);
+		assertThat(first.getCpf()).isEqualTo(client.getCpf());
+		assertThat(statementCounter.count()).isEqualTo(1);
+		
+		startRequest(client);
+		statementCounter.reset();
+		securityService.getCurrentUserPublic();
+		
+		assertThat(statementCounter.count()).isEqualTo(1);
+	}
+
+	@Test
+	void userAdminIsLoadedOncePerRequest() {
+		UserAdmin admin = createAdmin();
+		startRequest(admin);
+		
+		statementCounter.reset();
+		UserAdmin first = securityService.getCurrentUserAdmin();
+		UserAdmin second = securityService.getCurrentUserAdmin();
+		
+		assertThat(second).isSameAs(first);
+		assertThat(first.getCnpj()).isEqualTo(admin.getCnpj());
+		assertThat(statementCounter.count()).isEqualTo(1);
+	}
+
+	@Test
+	void endpointsLoadTheSubtypeOnlyWhenTheyNeedIt() throws Exception {
+		UserPublic client = createClient();
+		Order order = createOrder(client, 1);
+		UserAdmin admin = createAdmin();
+		
+		// Só o pedido: o email do cliente vem do token
+		assertThat(countStatements(authenticated(get("/api/clients/orders/{id}", order.getId()), client))).isEqualTo(1);
+		// Só o UserPublic, em uma consulta
+		assertThat(countStatements(authenticated(get("/api/clients/account"), client))).isEqualTo(1);
+		assertThat(countStatements(authenticated(get("/api/admins/account"), admin))).isEqualTo(1);
+	}
+
+	/**
+	 * Simula uma nova requisição autenticada com o principal montado a partir das
+	 * claims do token (apenas id, email, nome e role).
+	 */
+	private void startRequest(UserGeneric user) {
+		UserGeneric principal = new UserGeneric();
+		principal.setId(user.getId());
+		principal.setEmail(user.getEmail());
+		principal.setName(user.getName());
+		principal.setRole(user.getRole());
+		
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		SecurityContextHolder.getContext().setAuthentication(new CustomAuthentication(principal));
+	}
+}
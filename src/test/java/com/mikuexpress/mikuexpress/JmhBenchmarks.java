@@ -0,0 +1,25 @@
+package com.mikuexpress.mikuexpress;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Roda os benchmarks JMH do projeto (classes com métodos @Benchmark em src/test/java).
+ * 
+ * A lista de benchmarks é gerada pelo processador de anotações do JMH, ativo só no
+ * perfil benchmark: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class JmhBenchmarks {
+
+	@Test
+	void run() throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(getClass().getPackageName() + ".*")
+				.build())
+				.run();
+	}
+}
@@ -0,0 +1,61 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.mikuexpress.mikuexpress.RefreshTokenTest.Tokens;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compara requisições por segundo em /api/auth/login (BCrypt a cada chamada) e em
+ * /api/auth/refresh (troca do refresh token, sem BCrypt). Os refreshes são
+ * encadeados: cada um usa o token emitido pelo anterior, como um cliente real faria.
+ * 
+ * Roda só com o perfil benchmark: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class LoginRefreshBenchmark extends StatementCountTest {
+
+	private static final int REQUESTS = 200;
+
+	private static final String PASSWORD = "senha-do-benchmark";
+
+	@Test
+	void loginVersusRefreshThroughput() throws Exception {
+		UserPublic client = createClient(PASSWORD);
+		
+		// Aquece o MockMvc, o pool de conexões e o JIT antes das medições
+		String refreshToken = RefreshTokenTest.login(mockMvc, client.getEmail(), PASSWORD).refreshToken();
+		for (int i = 0; i < REQUESTS / 10; i++) {
+			refreshToken = RefreshTokenTest.refresh(mockMvc, refreshToken).refreshToken();
+		}
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			RefreshTokenTest.login(mockMvc, client.getEmail(), PASSWORD);
+		}
+		double logins = report("login", System.nanoTime() - start);
+		
+		Tokens tokens = RefreshTokenTest.login(mockMvc, client.getEmail(), PASSWORD);
+		start = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			tokens = RefreshTokenTest.refresh(mockMvc, tokens.refreshToken());
+		}
+		double refreshes = report("refresh", System.nanoTime() - start);
+		
+		log.info("Refresh é {}x mais rápido que login", String.format("%.1f", refreshes / logins));
+		assertThat(refreshes).isGreaterThan(logins);
+	}
+
+	private double report(String name, long elapsedNanos) {
+		double perSecond = REQUESTS * 1_000_000_000.0 / elapsedNanos;
+		log.info("{}: {} requisições em {} ms ({} req/s)",
+				name, REQUESTS, elapsedNanos / 1_000_000, String.format("%.0f", perSecond));
+		return perSecond;
+	}
+}
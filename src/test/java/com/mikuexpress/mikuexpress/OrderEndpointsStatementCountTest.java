@@ -0,0 +1,97 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Test;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.UserAdmin;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+
+/**
+ * Garante que as consultas de pedidos não voltam a ter N+1: o número de comandos SQL
+ * de cada endpoint não pode crescer com a quantidade de pedidos ou de atualizações
+ * de status, e fica dentro do limite esperado para ele.
+ */
+class OrderEndpointsStatementCountTest extends StatementCountTest {
+
+	// ETag (consulta agregada) + pedido com histórico em uma consulta
+	private static final int TRACKING_MAX_STATEMENTS = 2;
+	private static final int CLIENT_LISTING_MAX_STATEMENTS = 2;
+	// Pedido com histórico em uma consulta
+	private static final int DETAIL_MAX_STATEMENTS = 1;
+	// Página por chave no JdbcTemplate
+	private static final int ADMIN_LISTING_MAX_STATEMENTS = 1;
+
+	@Test
+	void publicTrackingDoesNotGrowWithStatusUpdates() throws Exception {
+		UserPublic client = createClient();
+		Order small = createOrder(client, 1);
+		Order large = createOrder(client, 10);
+		
+		int smallCount = countStatements(get("/api/publics/orders/tracking").param("code", small.getTrackingCode()));
+		int largeCount = countStatements(get("/api/publics/orders/tracking").param("code", large.getTrackingCode()));
+		
+		assertThat(largeCount).isEqualTo(smallCount);
+		assertThat(largeCount).isLessThanOrEqualTo(TRACKING_MAX_STATEMENTS);
+	}
+
+	@Test
+	void clientOrderListingDoesNotGrowWithOrders() throws Exception {
+		UserPublic fewOrders = createClient();
+		createOrder(fewOrders, 1);
+		UserPublic manyOrders = createClient();
+		for (int i = 0; i < 10; i++) {
+			createOrder(manyOrders, 5);
+		}
+		
+		int smallCount = countStatements(authenticated(get("/api/clients/orders"), fewOrders));
+		int largeCount = countStatements(authenticated(get("/api/clients/orders"), manyOrders));
+		
+		assertThat(largeCount).isEqualTo(smallCount);
+		assertThat(largeCount).isLessThanOrEqualTo(CLIENT_LISTING_MAX_STATEMENTS);
+	}
+
+	@Test
+	void clientOrderDetailDoesNotGrowWithStatusUpdates() throws Exception {
+		UserPublic client = createClient();
+		Order small = createOrder(client, 1);
+		Order large = createOrder(client, 10);
+		
+		int smallCount = countStatements(authenticated(get("/api/clients/orders/{id}", small.getId()), client));
+		int largeCount = countStatements(authenticated(get("/api/clients/orders/{id}", large.getId()), client));
+		
+		assertThat(largeCount).isEqualTo(smallCount);
+		assertThat(largeCount).isLessThanOrEqualTo(DETAIL_MAX_STATEMENTS);
+	}
+
+	@Test
+	void adminOrderListingDoesNotGrowWithPageSize() throws Exception {
+		UserAdmin admin = createAdmin();
+		UserPublic client = createClient();
+		for (int i = 0; i < 10; i++) {
+			createOrder(client, 5);
+		}
+		
+		int smallCount = countStatements(authenticated(get("/api/admins/orders").param("size", "1"), admin));
+		int largeCount = countStatements(authenticated(get("/api/admins/orders").param("size", "10"), admin));
+		
+		assertThat(largeCount).isEqualTo(smallCount);
+		assertThat(largeCount).isLessThanOrEqualTo(ADMIN_LISTING_MAX_STATEMENTS);
+	}
+
+	@Test
+	void adminOrderDetailDoesNotGrowWithStatusUpdates() throws Exception {
+		UserAdmin admin = createAdmin();
+		UserPublic client = createClient();
+		Order small = createOrder(client, 1);
+		Order large = createOrder(client, 10);
+		
+		int smallCount = countStatements(authenticated(get("/api/admins/orders/{id}", small.getId()), admin));
+		int largeCount = countStatements(authenticated(get("/api/admins/orders/{id}", large.getId()), admin));
+		
+		assertThat(largeCount).isEqualTo(smallCount);
+		assertThat(largeCount).isLessThanOrEqualTo(DETAIL_MAX_STATEMENTS);
+	}
+}
@@ -0,0 +1,86 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mede pedidos inseridos por segundo na criação individual e em lote, com e sem o
+ * lote JDBC (hibernate.jdbc.batch_size e reWriteBatchedInserts). Cada pedido tem uma
+ * atualização de status, como na criação pelo OrderService.
+ * 
+ * Roda só com o perfil benchmark: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class OrderInsertBenchmark extends StatementCountTest {
+
+	private static final int ORDERS = 2000;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	void insertThroughput() {
+		UserPublic client = createClient();
+		
+		// Aquece o pool de conexões, o Hibernate e o JIT antes das medições
+		measure("aquecimento", () -> insertBulk(client, ORDERS, true));
+		
+		Result single = measure("individual", () -> {
+			for (int i = 0; i < ORDERS; i++) {
+				transactionTemplate.executeWithoutResult(status -> orderRepository.save(newOrder(client, 1)));
+			}
+		});
+		Result unbatched = measure("lote sem JDBC batch", () -> insertBulk(client, ORDERS, false));
+		Result batched = measure("lote com JDBC batch", () -> insertBulk(client, ORDERS, true));
+		
+		assertThat(batched.statements()).isLessThan(unbatched.statements());
+		assertThat(batched.statements()).isLessThan(single.statements());
+	}
+
+	private void insertBulk(UserPublic client, int count, boolean jdbcBatching) {
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!jdbcBatching) {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+			}
+			List<Order> orders = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				orders.add(newOrder(client, 1));
+			}
+			orderRepository.saveAll(orders);
+		});
+	}
+
+	private Result measure(String name, Runnable insert) {
+		statementCounter.reset();
+		long start = System.nanoTime();
+		insert.run();
+		long elapsedNanos = System.nanoTime() - start;
+		
+		Result result = new Result(ORDERS * 1_000_000_000.0 / elapsedNanos, statementCounter.count());
+		log.info("Inserção {}: {} pedidos em {} ms ({} pedidos/s, {} comandos SQL)",
+				name, ORDERS, elapsedNanos / 1_000_000, String.format("%.0f", result.ordersPerSecond()), result.statements());
+		return result;
+	}
+
+	private record Result(double ordersPerSecond, int statements) {
+	}
+}
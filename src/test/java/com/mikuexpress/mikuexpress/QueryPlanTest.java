@@ -0,0 +1,90 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Garante que as consultas mais frequentes usam os índices criados pelas migrações.
+ * 
+ * As consultas abaixo têm o mesmo formato das geradas pelos repositórios. Os planos são
+ * obtidos com enable_seqscan desligado: assim o Postgres só lê a tabela inteira se
+ * nenhum índice servir para a consulta, independentemente de quantas linhas o banco
+ * de teste tenha.
+ */
+class QueryPlanTest extends StatementCountTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void findByTrackingCodeUsesTheUniqueIndex() {
+		String plan = explain("""
+				select * from orders where tracking_code = 'MIKU06JHVHS1R0MTMBBR'
+				""");
+		
+		assertThat(plan).contains("uk_orders_tracking_code").doesNotContain("Seq Scan");
+	}
+
+	@Test
+	void customerOrderListingUsesTheCustomerEmailIndex() {
+		// OrderRepository.findWithStatusUpdatesByCustomerEmailOrderByDateCreateDesc
+		String plan = explain("""
+				select o.*, s.*
+				from orders o left join status_update s on s.order_id = o.order_id
+				where o.customer_email = 'cliente@mikuexpress.com'
+				order by o.date_create desc
+				""");
+		
+		assertThat(plan).contains("idx_orders_customer_email").doesNotContain("Seq Scan");
+	}
+
+	@Test
+	void statusHistoryUsesTheOrderIndex() {
+		// StatusUpdateRepository.findByOrderIdAndDateUpdateGreaterThanEqualOrderByDateUpdateAsc
+		String plan = explain("""
+				select * from status_update
+				where order_id = 1 and date_update >= timestamp '2025-01-01 00:00:00'
+				order by date_update
+				""");
+		
+		assertThat(plan).contains("idx_status_update_order").doesNotContain("Seq Scan");
+	}
+
+	@Test
+	void trackingViewLoadUsesBothIndexes() {
+		// OrderRepository.findWithStatusUpdatesByTrackingCode (pedido e histórico em uma consulta)
+		String plan = explain("""
+				select o.*, s.*
+				from orders o left join status_update s on s.order_id = o.order_id
+				where o.tracking_code = 'MIKU06JHVHS1R0MTMBBR'
+				order by s.date_update
+				""");
+		
+		assertThat(plan).contains("uk_orders_tracking_code", "idx_status_update_order").doesNotContain("Seq Scan");
+	}
+
+	private String explain(String sql) {
+		return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("set enable_seqscan = off");
+				
+				StringBuilder plan = new StringBuilder();
+				try (ResultSet rows = statement.executeQuery("explain " + sql)) {
+					while (rows.next()) {
+						plan.append(rows.getString(1)).append('\n');
+					}
+				} finally {
+					statement.execute("reset enable_seqscan");
+				}
+				return plan.toString();
+			}
+		});
+	}
+}
@@ -0,0 +1,122 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+
+/**
+ * Troca de refresh tokens em /api/auth/refresh: cada token é de uso único, e reapresentar
+ * um token já usado revoga a família inteira (todos os tokens da mesma sessão).
+ */
+class RefreshTokenTest extends StatementCountTest {
+
+	static final String PASSWORD = "senha-do-teste";
+
+	@Test
+	void refreshRotatesTheRefreshToken() throws Exception {
+		UserPublic client = createClient(PASSWORD);
+		Tokens login = login(mockMvc, client.getEmail(), PASSWORD);
+		
+		Tokens refreshed = refresh(login.refreshToken());
+		
+		assertThat(refreshed.refreshToken()).isNotEqualTo(login.refreshToken());
+		mockMvc.perform(get("/api/clients/account").header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshed.accessToken()))
+				.andExpect(status().isOk());
+		// O novo refresh token também pode ser trocado
+		refresh(refreshed.refreshToken());
+	}
+
+	@Test
+	void reusedRefreshTokenRevokesTheFamily() throws Exception {
+		UserPublic client = createClient(PASSWORD);
+		Tokens login = login(mockMvc, client.getEmail(), PASSWORD);
+		Tokens refreshed = refresh(login.refreshToken());
+		
+		refreshExpectingUnauthorized(login.refreshToken());
+		
+		// O token emitido na troca pertence à família revogada
+		refreshExpectingUnauthorized(refreshed.refreshToken());
+	}
+
+	@Test
+	void reuseDoesNotRevokeOtherSessions() throws Exception {
+		UserPublic client = createClient(PASSWORD);
+		Tokens firstSession = login(mockMvc, client.getEmail(), PASSWORD);
+		Tokens secondSession = login(mockMvc, client.getEmail(), PASSWORD);
+		
+		refresh(firstSession.refreshToken());
+		refreshExpectingUnauthorized(firstSession.refreshToken());
+		
+		refresh(secondSession.refreshToken());
+	}
+
+	@Test
+	void logoutRevokesTheRefreshToken() throws Exception {
+		UserPublic client = createClient(PASSWORD);
+		Tokens login = login(mockMvc, client.getEmail(), PASSWORD);
+		
+		mockMvc.perform(post("/api/auth/logout")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + login.accessToken())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(refreshTokenBody(login.refreshToken())))
+				.andExpect(status().isNoContent());
+		
+		refreshExpectingUnauthorized(login.refreshToken());
+	}
+
+	@Test
+	void unknownRefreshTokenIsRejected() throws Exception {
+		refreshExpectingUnauthorized("token-que-nao-existe");
+	}
+
+	static Tokens login(MockMvc mockMvc, String email, String password) throws Exception {
+		MvcResult result = mockMvc.perform(post("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+				.andExpect(status().isOk())
+				.andReturn();
+		return Tokens.of(result);
+	}
+
+	static Tokens refresh(MockMvc mockMvc, String refreshToken) throws Exception {
+		MvcResult result = mockMvc.perform(post("/api/auth/refresh")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(refreshTokenBody(refreshToken)))
+				.andExpect(status().isOk())
+				.andReturn();
+		return Tokens.of(result);
+	}
+
+	private Tokens refresh(String refreshToken) throws Exception {
+		return refresh(mockMvc, refreshToken);
+	}
+
+	private void refreshExpectingUnauthorized(String refreshToken) throws Exception {
+		mockMvc.perform(post("/api/auth/refresh")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(refreshTokenBody(refreshToken)))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static String refreshTokenBody(String refreshToken) {
+		return "{\"refreshToken\":\"" + refreshToken + "\"}";
+	}
+
+	record Tokens(String accessToken, String refreshToken) {
+
+		static Tokens of(MvcResult result) throws Exception {
+			String body = result.getResponse().getContentAsString();
+			return new Tokens(JsonPath.read(body, "$.token"), JsonPath.read(body, "$.refreshToken"));
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.mikuexpress.mikuexpress;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+import com.mikuexpress.mikuexpress.entity.UserAdmin;
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.entity.UserPublic;
+import com.mikuexpress.mikuexpress.enums.Gender;
+import com.mikuexpress.mikuexpress.enums.Role;
+import com.mikuexpress.mikuexpress.repository.OrderRepository;
+import com.mikuexpress.mikuexpress.repository.UserAdminRepository;
+import com.mikuexpress.mikuexpress.repository.UserPublicRepository;
+import com.mikuexpress.mikuexpress.security.CustomAuthentication;
+import com.mikuexpress.mikuexpress.security.JwtTokenProvider;
+import com.mikuexpress.mikuexpress.service.TrackingCodeGenerator;
+
+/**
+ * Base dos testes que contam os comandos SQL executados por requisição.
+ * 
+ * Cada teste cria os próprios dados (emails únicos), então a ordem de execução não
+ * importa. Sem Docker disponível os testes são ignorados.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(StatementCountTestConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class StatementCountTest {
+
+	@Autowired
+	protected MockMvc mockMvc;
+
+	@Autowired
+	protected StatementCounter statementCounter;
+
+	@Autowired
+	protected JwtTokenProvider jwtTokenProvider;
+
+	@Autowired
+	protected TrackingCodeGenerator trackingCodeGenerator;
+
+	@Autowired
+	protected OrderRepository orderRepository;
+
+	@Autowired
+	protected UserPublicRepository userPublicRepository;
+
+	@Autowired
+	protected UserAdminRepository userAdminRepository;
+
+	@Autowired
+	protected PasswordEncoder passwordEncoder;
+
+	/**
+	 * Executa a requisição e retorna quantos comandos SQL ela enviou ao banco.
+	 */
+	protected int countStatements(MockHttpServletRequestBuilder request) throws Exception {
+		statementCounter.reset();
+		mockMvc.perform(request).andExpect(status().isOk());
+		return statementCounter.count();
+	}
+
+	protected MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request, UserGeneric user) {
+		String token = jwtTokenProvider.generateToken(new CustomAuthentication(user));
+		return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+	}
+
+	protected UserPublic createClient() {
+		return createClient("senha-nao-usada");
+	}
+
+	/**
+	 * Cria um cliente que consegue fazer login com a senha informada.
+	 */
+	protected UserPublic createClient(String rawPassword) {
+		UserPublic client = new UserPublic();
+		client.setName("Cliente Teste");
+		client.setEmail("cliente-" + UUID.randomUUID() + "@mikuexpress.com");
+		client.setPassword(passwordEncoder.encode(rawPassword));
+		client.setPhoneNumber("11999999999");
+		client.setRole(Role.CLIENT);
+		client.setCpf("12345678909");
+		client.setDateOfBirth(LocalDate.of(1990, 1, 1));
+		client.setGender(Gender.WOMAN);
+		return userPublicRepository.save(client);
+	}
+
+	protected UserAdmin createAdmin() {
+		UserAdmin admin = new UserAdmin();
+		admin.setName("Admin Teste");
+		admin.setEmail("admin-" + UUID.randomUUID() + "@mikuexpress.com");
+		admin.setPassword("senha-nao-usada");
+		admin.setPhoneNumber("11999999999");
+		admin.setRole(Role.ADMIN);
+		admin.setCnpj("12345678000195");
+		admin.setOrganizationName("Miku Express");
+		return userAdminRepository.save(admin);
+	}
+
+	/**
+	 * Cria um pedido do cliente com a quantidade informada de atualizações de status.
+	 */
+	protected Order createOrder(UserGeneric customer, int statusUpdates) {
+		return orderRepository.save(newOrder(customer, statusUpdates));
+	}
+
+	/**
+	 * Monta, sem salvar, um pedido do cliente com a quantidade informada de atualizações de status.
+	 */
+	protected Order newOrder(UserGeneric customer, int statusUpdates) {
+		LocalDateTime now = LocalDateTime.now();
+		
+		Order order = new Order();
+		order.setTrackingCode(trackingCodeGenerator.generate());
+		order.setSource("São Paulo");
+		order.setDestination("Rio de Janeiro");
+		order.setDistance("430 km");
+		order.setPrice(50.0);
+		order.setCustomerEmail(customer.getEmail());
+		order.setCustomerName(customer.getName());
+		order.setWeightInKg(1.0);
+		order.setDateCreate(now);
+		
+		List<StatusUpdate> updates = new ArrayList<>();
+		for (int i = 0; i < statusUpdates; i++) {
+			StatusUpdate update = new StatusUpdate();
+			update.setStatus("Em trânsito");
+			update.setSource("Centro de distribuição " + i);
+			update.setDestination("Rio de Janeiro");
+			update.setDateUpdate(now.plusMinutes(i));
+			update.setOrder(order);
+			updates.add(update);
+		}
+		order.setStatusUpdates(updates);
+		if (!updates.isEmpty()) {
+			StatusUpdate last = updates.get(updates.size() - 1);
+			order.setCurrentStatus(last.getStatus());
+			order.setLastUpdated(last.getDateUpdate());
+		}
+		return order;
+	}
+}
@@ -0,0 +1,48 @@
+package com.mikuexpress.mikuexpress;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Sobe um Postgres em container para os testes e envolve o DataSource com o
+ * {@link StatementCounter}, para que cada teste confira quantos comandos SQL uma
+ * requisição executa.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCountTestConfiguration {
+
+	@Bean
+	@ServiceConnection
+	public PostgreSQLContainer<?> postgresContainer() {
+		return new PostgreSQLContainer<>("postgres:16-alpine");
+	}
+
+	@Bean
+	public StatementCounter statementCounter() {
+		return new StatementCounter();
+	}
+
+	@Bean
+	public static BeanPostProcessor statementCountingDataSource(ObjectProvider<StatementCounter> statementCounter) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource) {
+					return ProxyDataSourceBuilder.create(dataSource)
+							.name(beanName)
+							.listener(statementCounter.getObject())
+							.build();
+				}
+				return bean;
+			}
+		};
+	}
+}
@@ -0,0 +1,41 @@
+package com.mikuexpress.mikuexpress;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Conta os comandos SQL enviados ao banco, vindos tanto do Hibernate quanto do JdbcTemplate.
+ * 
+ * A contagem é global, e não por thread, porque parte das consultas (rastreio) roda
+ * no lookupExecutor. Os comandos das tarefas agendadas (threads scheduling-*) ficam de
+ * fora para não interferir na medição de uma requisição.
+ */
+public class StatementCounter implements QueryExecutionListener {
+
+	private static final String SCHEDULING_THREAD_PREFIX = "scheduling-";
+
+	private final AtomicInteger statements = new AtomicInteger();
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		if (!Thread.currentThread().getName().startsWith(SCHEDULING_THREAD_PREFIX)) {
+			statements.incrementAndGet();
+		}
+	}
+
+	public void reset() {
+		statements.set(0);
+	}
+
+	public int count() {
+		return statements.get();
+	}
+}
@@ -0,0 +1,73 @@
+package com.mikuexpress.mikuexpress.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.enums.Role;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtTokenProviderTest {
+
+	private static final String SECRET = "chave-de-teste-do-mikuexpress-com-mais-de-32-bytes";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void parseClaimsVerifiesEachTokenOnce() {
+		JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(meterRegistry, SECRET, 3_600_000, 100);
+		String token = jwtTokenProvider.generateToken(new CustomAuthentication(user()));
+		
+		Claims first = jwtTokenProvider.parseClaims(token);
+		Claims second = jwtTokenProvider.parseClaims(token);
+		Claims third = jwtTokenProvider.parseClaims(token);
+		
+		// Só a primeira chamada verifica a assinatura; as demais recebem as mesmas claims do cache
+		assertThat(second).isSameAs(first);
+		assertThat(third).isSameAs(first);
+		assertThat(cacheGets("miss")).isEqualTo(1);
+		assertThat(cacheGets("hit")).isEqualTo(2);
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(meterRegistry, SECRET, 3_600_000, 100);
+		String token = jwtTokenProvider.generateToken(new CustomAuthentication(user()));
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+		
+		jwtTokenProvider.parseClaims(token);
+		
+		assertThatThrownBy(() -> jwtTokenProvider.parseClaims(tampered)).isInstanceOf(RuntimeException.class);
+	}
+
+	@Test
+	void cachedTokenExpiresWithTheToken() throws InterruptedException {
+		JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(meterRegistry, SECRET, 1_000, 100);
+		String token = jwtTokenProvider.generateToken(new CustomAuthentication(user()));
+		
+		assertThat(jwtTokenProvider.parseClaims(token).getSubject()).isEqualTo("cliente@mikuexpress.com");
+		
+		Thread.sleep(2_000);
+		
+		// Se a entrada continuasse em cache, as claims seriam retornadas sem checar a expiração
+		assertThatThrownBy(() -> jwtTokenProvider.parseClaims(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+
+	private double cacheGets(String result) {
+		return meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", result).functionCounter().count();
+	}
+
+	private static UserGeneric user() {
+		UserGeneric user = new UserGeneric();
+		user.setId(1L);
+		user.setEmail("cliente@mikuexpress.com");
+		user.setName("Cliente");
+		user.setRole(Role.CLIENT);
+		return user;
+	}
+}
@@ -0,0 +1,76 @@
+package com.mikuexpress.mikuexpress.security;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mikuexpress.mikuexpress.entity.UserGeneric;
+import com.mikuexpress.mikuexpress.enums.Role;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Custo da verificação do token JWT feita pelo filtro a cada requisição:
+ * 
+ * - perRequestKeyAndParser: chave e parser montados a cada chamada (como era antes)
+ * - sharedParser: chave e parser montados uma vez, assinatura verificada a cada chamada
+ * - verifiedTokenCache: {@link JwtTokenProvider#parseClaims}, que verifica cada token uma vez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+	private static final String SECRET = "chave-de-benchmark-do-mikuexpress-com-mais-de-32-bytes";
+
+	private JwtTokenProvider jwtTokenProvider;
+	private JwtParser sharedParser;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtTokenProvider = new JwtTokenProvider(new SimpleMeterRegistry(), SECRET, 3_600_000, 50_000);
+		sharedParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+		
+		UserGeneric user = new UserGeneric();
+		user.setId(1L);
+		user.setEmail("cliente@mikuexpress.com");
+		user.setName("Cliente");
+		user.setRole(Role.CLIENT);
+		token = jwtTokenProvider.generateToken(new CustomAuthentication(user));
+	}
+
+	@Benchmark
+	public Claims perRequestKeyAndParser() {
+		SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+		return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+	}
+
+	@Benchmark
+	public Claims sharedParser() {
+		return sharedParser.parseSignedClaims(token).getPayload();
+	}
+
+	@Benchmark
+	public Claims verifiedTokenCache() {
+		return jwtTokenProvider.parseClaims(token);
+	}
+}
@@ -0,0 +1,87 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+import com.mikuexpress.mikuexpress.entity.StatusUpdate;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Dados e montagem de e-mails compartilhados pelos testes e benchmarks de e-mail.
+ */
+final class EmailFixtures {
+
+	private EmailFixtures() {
+	}
+
+	/**
+	 * Motor de templates com a mesma configuração do Spring Boot (templates/*.html, cache ligado).
+	 */
+	static SpringTemplateEngine templateEngine() {
+		ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+		resolver.setPrefix("templates/");
+		resolver.setSuffix(".html");
+		resolver.setTemplateMode(TemplateMode.HTML);
+		resolver.setCharacterEncoding("UTF-8");
+		resolver.setCacheable(true);
+		
+		SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+		templateEngine.setTemplateResolver(resolver);
+		return templateEngine;
+	}
+
+	static Order order() {
+		Order order = new Order();
+		order.setTrackingCode("MIKU0000ABCDBR");
+		order.setCustomerEmail("cliente@mikuexpress.com");
+		order.setCustomerName("Cliente Teste");
+		order.setSource("São Paulo, SP");
+		order.setDestination("Rio de Janeiro, RJ");
+		order.setDateCreate(LocalDateTime.now());
+		order.setStatusUpdates(new ArrayList<>(List.of(statusUpdate(order, "Pedido criado!"))));
+		return order;
+	}
+
+	static StatusUpdate statusUpdate(Order order, String status) {
+		StatusUpdate statusUpdate = new StatusUpdate();
+		statusUpdate.setStatus(status);
+		statusUpdate.setSource("Centro de distribuição, SP");
+		statusUpdate.setDestination("Rio de Janeiro, RJ");
+		statusUpdate.setDateUpdate(LocalDateTime.now());
+		statusUpdate.setOrder(order);
+		return statusUpdate;
+	}
+
+	/**
+	 * Monta o e-mail de criação de pedido como era antes do EmailRenderer: multipart
+	 * mixed/related e a logo lida do classpath a cada mensagem.
+	 */
+	static MimeMessage legacyEmailCreate(JavaMailSender mailSender, SpringTemplateEngine templateEngine, Order order) throws MessagingException {
+		Context context = new Context();
+		context.setVariable("nomeCliente", order.getCustomerName());
+		context.setVariable("codigoRastreio", order.getTrackingCode());
+		context.setVariable("logoCid", EmailRenderer.LOGO_CID);
+		context.setVariable("statusInicial", order.getStatusUpdates().get(0).getStatus());
+		String htmlContent = templateEngine.process("pedido-criado", context);
+		
+		MimeMessage mimeMessage = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+		helper.setTo(order.getCustomerEmail());
+		helper.setSubject("Miku Express: Pedido Criado!");
+		helper.setText(htmlContent, true);
+		helper.addInline(EmailRenderer.LOGO_CID, new ClassPathResource("imagens/logo.png"));
+		return mimeMessage;
+	}
+}
@@ -0,0 +1,142 @@
+package com.mikuexpress.mikuexpress.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+
+import jakarta.mail.BodyPart;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.ContentType;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+
+/**
+ * Os e-mails montados com a logo em memória e os templates em cache têm a mesma estrutura
+ * MIME de antes: multipart/related com o HTML e a logo inline referenciada pelo CID.
+ * 
+ * As mensagens são serializadas e lidas de volta, como chegariam ao servidor SMTP.
+ */
+class EmailMimeStructureTest {
+
+	private final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+
+	private SpringTemplateEngine templateEngine;
+
+	private EmailService emailService;
+
+	private byte[] logo;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		templateEngine = EmailFixtures.templateEngine();
+		emailService = new EmailService(mailSender, new EmailRenderer(templateEngine));
+		logo = new ClassPathResource("imagens/logo.png").getContentAsByteArray();
+	}
+
+	@Test
+	void orderCreatedEmailIsRelatedWithInlineLogo() throws Exception {
+		assertRelatedWithInlineLogo(related(emailService.buildEmailCreate(EmailFixtures.order())));
+	}
+
+	@Test
+	void statusUpdateEmailIsRelatedWithInlineLogo() throws Exception {
+		Order order = EmailFixtures.order();
+		MimeMessage message = emailService.buildEmailUpdate(order, EmailFixtures.statusUpdate(order, "Em trânsito"));
+		
+		assertRelatedWithInlineLogo(related(message));
+	}
+
+	@Test
+	void digestEmailIsRelatedWithInlineLogo() throws Exception {
+		Order order = EmailFixtures.order();
+		MimeMessage message = emailService.buildEmailDigest(order, List.of(
+				EmailFixtures.statusUpdate(order, "Em trânsito"),
+				EmailFixtures.statusUpdate(order, "Saiu para entrega")));
+		
+		assertRelatedWithInlineLogo(related(message));
+	}
+
+	@Test
+	void sharedLogoIsAttachedInFullToEveryMessage() throws Exception {
+		Order order = EmailFixtures.order();
+		
+		for (int i = 0; i < 3; i++) {
+			assertRelatedWithInlineLogo(related(emailService.buildEmailCreate(order)));
+		}
+	}
+
+	@Test
+	void relatedPartMatchesThePreviousRenderPath() throws Exception {
+		Order order = EmailFixtures.order();
+		
+		MimeMultipart current = related(emailService.buildEmailCreate(order));
+		MimeMultipart legacy = related(EmailFixtures.legacyEmailCreate(mailSender, templateEngine, order));
+		
+		assertThat(current.getCount()).isEqualTo(legacy.getCount());
+		for (int i = 0; i < current.getCount(); i++) {
+			MimeBodyPart currentPart = (MimeBodyPart) current.getBodyPart(i);
+			MimeBodyPart legacyPart = (MimeBodyPart) legacy.getBodyPart(i);
+			assertThat(baseType(currentPart)).isEqualTo(baseType(legacyPart));
+			assertThat(currentPart.getContentID()).isEqualTo(legacyPart.getContentID());
+			assertThat(currentPart.getDisposition()).isEqualTo(legacyPart.getDisposition());
+			assertThat(currentPart.getInputStream().readAllBytes()).isEqualTo(legacyPart.getInputStream().readAllBytes());
+		}
+	}
+
+	private void assertRelatedWithInlineLogo(MimeMultipart related) throws Exception {
+		assertThat(related.getCount()).isEqualTo(2);
+		
+		BodyPart html = related.getBodyPart(0);
+		assertThat(baseType(html)).isEqualTo("text/html");
+		assertThat((String) html.getContent()).contains("cid:" + EmailRenderer.LOGO_CID);
+		
+		MimeBodyPart image = (MimeBodyPart) related.getBodyPart(1);
+		assertThat(baseType(image)).isEqualTo(EmailRenderer.LOGO_CONTENT_TYPE);
+		assertThat(image.getDisposition()).isEqualTo(Part.INLINE);
+		assertThat(image.getContentID()).isEqualTo("<" + EmailRenderer.LOGO_CID + ">");
+		assertThat(image.getInputStream().readAllBytes()).isEqualTo(logo);
+	}
+
+	/**
+	 * Serializa a mensagem, lê de volta e devolve a parte multipart/related, que pode ser
+	 * a raiz (MULTIPART_MODE_RELATED) ou estar dentro de um multipart/mixed (MULTIPART_MODE_MIXED_RELATED).
+	 */
+	private static MimeMultipart related(MimeMessage message) throws Exception {
+		message.saveChanges();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		message.writeTo(out);
+		MimeMessage parsed = new MimeMessage(Session.getInstance(new Properties()), new ByteArrayInputStream(out.toByteArray()));
+		
+		MimeMultipart root = (MimeMultipart) parsed.getContent();
+		if (new ContentType(root.getContentType()).match("multipart/related")) {
+			return root;
+		}
+		assertThat(new ContentType(root.getContentType()).match("multipart/mixed")).isTrue();
+		for (int i = 0; i < root.getCount(); i++) {
+			if (root.getBodyPart(i).getContent() instanceof MimeMultipart nested
+					&& new ContentType(nested.getContentType()).match("multipart/related")) {
+				return nested;
+			}
+		}
+		throw new AssertionError("Mensagem sem parte multipart/related");
+	}
+
+	private static String baseType(Part part) throws MessagingException {
+		return new ContentType(part.getContentType()).getBaseType().toLowerCase();
+	}
+}
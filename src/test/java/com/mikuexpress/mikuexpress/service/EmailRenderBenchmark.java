@@ -0,0 +1,66 @@
+package com.mikuexpress.mikuexpress.service;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import com.mikuexpress.mikuexpress.entity.Order;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Custo de montar o e-mail de criação de pedido (sem enviar):
+ * 
+ * - legacy: multipart mixed/related e logo lida do classpath a cada mensagem (como era antes)
+ * - emailRenderer: {@link EmailService#buildEmailCreate}, com a logo em memória e multipart/related
+ * 
+ * saveChanges() força a codificação das partes, como acontece no envio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderBenchmark {
+
+	private JavaMailSenderImpl mailSender;
+	private SpringTemplateEngine templateEngine;
+	private EmailService emailService;
+	private Order order;
+
+	@Setup
+	public void setUp() throws IOException {
+		mailSender = new JavaMailSenderImpl();
+		templateEngine = EmailFixtures.templateEngine();
+		emailService = new EmailService(mailSender, new EmailRenderer(templateEngine));
+		order = EmailFixtures.order();
+	}
+
+	@Benchmark
+	public MimeMessage legacy() throws MessagingException {
+		MimeMessage message = EmailFixtures.legacyEmailCreate(mailSender, templateEngine, order);
+		message.saveChanges();
+		return message;
+	}
+
+	@Benchmark
+	public MimeMessage emailRenderer() throws MessagingException {
+		MimeMessage message = emailService.buildEmailCreate(order);
+		message.saveChanges();
+		return message;
+	}
+}
@@ -0,0 +1,210 @@
+package com.mikuexpress.mikuexpress.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envio em lote do EmailService contra um servidor SMTP de teste (GreenMail): limite de
+ * mensagens por conexão e reenvio por uma nova conexão quando a primeira falha.
+ */
+@Slf4j
+class EmailServiceBatchTest {
+
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private CountingMailSender mailSender;
+
+	private EmailService emailService;
+
+	@BeforeEach
+	void setUp() {
+		mailSender = new CountingMailSender(greenMail.getSmtp().getPort());
+		emailService = emailService(mailSender, 10);
+	}
+
+	@Test
+	void sendsAtMostMaxMessagesPerConnection() throws Exception {
+		Map<MimeMessage, Exception> failures = emailService.sendBatch(messages(25));
+
+		assertThat(failures).isEmpty();
+		assertThat(mailSender.connections.get()).isEqualTo(3);
+		assertThat(greenMail.waitForIncomingEmail(5000, 25)).isTrue();
+	}
+
+	@Test
+	void resendsOverANewConnectionWhenTheConnectionDrops() throws Exception {
+		// A conexão cai depois da 4ª mensagem do grupo
+		mailSender.dropConnectionAfter = 4;
+
+		Map<MimeMessage, Exception> failures = emailService.sendBatch(messages(10));
+
+		assertThat(failures).isEmpty();
+		assertThat(mailSender.connections.get()).isEqualTo(2);
+		assertThat(greenMail.waitForIncomingEmail(5000, 10)).isTrue();
+		assertThat(greenMail.getReceivedMessages()).hasSize(10);
+	}
+
+	@Test
+	void reportsMessagesThatFailAgainAfterReconnecting() throws Exception {
+		List<MimeMessage> messages = messages(10);
+		mailSender.rejected = messages.get(3);
+
+		Map<MimeMessage, Exception> failures = emailService.sendBatch(messages);
+
+		assertThat(failures).containsOnlyKeys(messages.get(3));
+		// A mensagem recusada foi tentada de novo num segundo envio
+		assertThat(mailSender.sends.get()).isEqualTo(2);
+		assertThat(greenMail.waitForIncomingEmail(5000, 9)).isTrue();
+	}
+
+	@Test
+	void reportsEveryMessageWhenTheServerIsUnreachable() throws Exception {
+		CountingMailSender unreachable = new CountingMailSender(unusedPort());
+		List<MimeMessage> messages = messages(5);
+
+		Map<MimeMessage, Exception> failures = emailService(unreachable, 10).sendBatch(messages);
+
+		assertThat(failures).containsOnlyKeys(messages.toArray(MimeMessage[]::new));
+		// Uma tentativa e um reenvio por uma nova conexão
+		assertThat(unreachable.connections.get()).isEqualTo(2);
+	}
+
+	/**
+	 * Mede e-mails enviados por segundo reaproveitando a conexão e abrindo uma conexão
+	 * por mensagem. Contra o GreenMail não há STARTTLS/AUTH, então a diferença em produção
+	 * tende a ser maior.
+	 *
+	 * Roda só com o perfil benchmark: mvn test -Pbenchmark
+	 */
+	@Test
+	@Tag("benchmark")
+	void sendBatchThroughput() throws Exception {
+		int count = 500;
+
+		// Aquece o JavaMail e o JIT antes das medições
+		emailService(mailSender, 100).sendBatch(messages(count));
+
+		double reused = measure("100 mensagens por conexão", emailService(mailSender, 100), count);
+		double perMessage = measure("1 mensagem por conexão", emailService(mailSender, 1), count);
+
+		assertThat(reused).isGreaterThan(perMessage);
+	}
+
+	private double measure(String name, EmailService service, int count) throws MessagingException {
+		List<MimeMessage> messages = messages(count);
+		mailSender.connections.set(0);
+
+		long start = System.nanoTime();
+		Map<MimeMessage, Exception> failures = service.sendBatch(messages);
+		long elapsedNanos = System.nanoTime() - start;
+
+		assertThat(failures).isEmpty();
+		double perSecond = count * 1_000_000_000.0 / elapsedNanos;
+		log.info("Envio com {}: {} e-mails em {} ms ({} e-mails/s, {} conexões)",
+				name, count, elapsedNanos / 1_000_000, String.format("%.0f", perSecond), mailSender.connections.get());
+		return perSecond;
+	}
+
+	private static EmailService emailService(JavaMailSenderImpl mailSender, int maxMessagesPerConnection) {
+		EmailService emailService = new EmailService(mailSender, null);
+		ReflectionTestUtils.setField(emailService, "maxMessagesPerConnection", maxMessagesPerConnection);
+		return emailService;
+	}
+
+	private List<MimeMessage> messages(int count) throws MessagingException {
+		List<MimeMessage> messages = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			MimeMessage message = mailSender.createMimeMessage();
+			message.setFrom("noreply@mikuexpress.com");
+			message.setRecipients(MimeMessage.RecipientType.TO, "cliente" + i + "@mikuexpress.com");
+			message.setSubject("Miku Express: Teste " + i);
+			message.setText("Mensagem " + i, "UTF-8");
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	private static int unusedPort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	/**
+	 * JavaMailSenderImpl que conta os envios e as conexões abertas e simula falhas de envio.
+	 */
+	private static class CountingMailSender extends JavaMailSenderImpl {
+
+		final AtomicInteger connections = new AtomicInteger();
+
+		final AtomicInteger sends = new AtomicInteger();
+
+		/** Se maior que zero, a primeira conexão cai depois desse número de mensagens. */
+		int dropConnectionAfter;
+
+		/** Mensagem recusada em toda tentativa. */
+		MimeMessage rejected;
+
+		CountingMailSender(int port) {
+			setHost("localhost");
+			setPort(port);
+			getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+		}
+
+		@Override
+		protected Transport connectTransport() throws MessagingException {
+			connections.incrementAndGet();
+			return super.connectTransport();
+		}
+
+		@Override
+		protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+			sends.incrementAndGet();
+			Map<Object, Exception> failed = new LinkedHashMap<>();
+			List<MimeMessage> toSend = new ArrayList<>(Arrays.asList(mimeMessages));
+
+			if (dropConnectionAfter > 0 && dropConnectionAfter < toSend.size()) {
+				List<MimeMessage> dropped = toSend.subList(dropConnectionAfter, toSend.size());
+				dropped.forEach(message -> failed.put(message, new MessagingException("Conexão encerrada pelo servidor")));
+				dropped.clear();
+				dropConnectionAfter = 0;
+			}
+			if (rejected != null && toSend.remove(rejected)) {
+				failed.put(rejected, new MessagingException("Destinatário recusado"));
+			}
+
+			if (!toSend.isEmpty()) {
+				super.doSend(toSend.toArray(MimeMessage[]::new), null);
+			}
+			if (!failed.isEmpty()) {
+				throw new MailSendException(failed);
+			}
+		}
+	}
+}